@@ -0,0 +1,81 @@
+package com.ibm.certification.clinical_system.benchmark;
+
+import com.ibm.certification.clinical_system.service.AvailabilityTemplate;
+import com.ibm.certification.clinical_system.service.DoctorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability lookups: parsing a doctor's {@code availableTimes} template on
+ * its own, and {@code DoctorService.getAvailableTimeSlots} on the seeded
+ * dataset for a day already cached and for a different (doctor, day) each call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Template {
+
+        @Param({"09:00,10:00,11:00,14:00,15:00,16:00", "08:00-12:00,13:00-17:00"})
+        public String availableTimes;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Clinic {
+
+        private ConfigurableApplicationContext context;
+
+        private DoctorService doctorService;
+
+        private long calls;
+
+        @Setup
+        public void setUp() {
+            context = ClinicDataset.start();
+            doctorService = context.getBean(DoctorService.class);
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public List<LocalTime> parseTemplate(Template template) {
+        return AvailabilityTemplate.parse(template.availableTimes).startTimes();
+    }
+
+    @Benchmark
+    public List<String> cachedDay(Clinic clinic) {
+        return clinic.doctorService.getAvailableTimeSlots(7L, ClinicDataset.SEEDED_FROM.toLocalDate());
+    }
+
+    @Benchmark
+    public List<String> uncachedDay(Clinic clinic) {
+        long n = clinic.calls++;
+        long doctorId = 1 + n % ClinicDataset.DOCTORS;
+        LocalDate date = ClinicDataset.SEEDED_FROM.toLocalDate().plusDays(n / ClinicDataset.DOCTORS % 365);
+        return clinic.doctorService.getAvailableTimeSlots(doctorId, date);
+    }
+}
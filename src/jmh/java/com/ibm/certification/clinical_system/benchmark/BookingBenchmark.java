@@ -0,0 +1,74 @@
+package com.ibm.certification.clinical_system.benchmark;
+
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.service.AppointmentService;
+import com.ibm.certification.clinical_system.service.AppointmentSlotIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end {@code AppointmentService.bookAppointment} against the seeded H2
+ * dataset. Every invocation books a distinct free slot, so the numbers cover
+ * the successful path: lookups, the conflict check and the insert.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingBenchmark {
+
+    private static final LocalDateTime BOOKING_FROM = LocalDateTime.of(2035, 1, 1, 0, 0);
+
+    private ConfigurableApplicationContext context;
+
+    private AppointmentService appointmentService;
+
+    private final AtomicLong bookings = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = ClinicDataset.start();
+        appointmentService = context.getBean(AppointmentService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Appointment bookAppointment() {
+        return bookNext();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Appointment bookAppointmentConcurrently() {
+        return bookNext();
+    }
+
+    private Appointment bookNext() {
+        long n = bookings.getAndIncrement();
+        long doctorId = 1 + n % ClinicDataset.DOCTORS;
+        long patientId = 1 + n % ClinicDataset.PATIENTS;
+        LocalDateTime time = BOOKING_FROM.plusMinutes(n / ClinicDataset.DOCTORS * AppointmentSlotIndex.APPOINTMENT_MINUTES);
+        return appointmentService.bookAppointment(doctorId, patientId, time, "Benchmark");
+    }
+}
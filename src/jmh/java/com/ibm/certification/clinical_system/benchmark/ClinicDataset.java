@@ -0,0 +1,100 @@
+package com.ibm.certification.clinical_system.benchmark;
+
+import com.ibm.certification.clinical_system.ClinicalSystemApplication;
+import com.ibm.certification.clinical_system.service.AppointmentSlotIndex;
+import com.ibm.certification.clinical_system.service.DoctorService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against in-memory H2 and seeds a clinic-sized
+ * dataset: {@value #DOCTORS} doctors, {@value #PATIENTS} patients and
+ * {@value #APPOINTMENTS_PER_DOCTOR} past appointments per doctor.
+ */
+final class ClinicDataset {
+
+    static final int DOCTORS = 2_000;
+
+    static final int PATIENTS = 20_000;
+
+    static final int APPOINTMENTS_PER_DOCTOR = 150;
+
+    static final LocalDateTime SEEDED_FROM = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    static final String[] SPECIALTIES = {
+        "Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics",
+        "Oncology", "Psychiatry", "Radiology", "Urology", "General Practice"
+    };
+
+    private static final String[] AVAILABLE_TIMES = {
+        null,
+        "09:00,10:00,11:00,14:00,15:00,16:00",
+        "08:00-12:00,13:00-17:00",
+        "10:00-18:00"
+    };
+
+    private static final int BATCH_SIZE = 5_000;
+
+    private ClinicDataset() {}
+
+    static ConfigurableApplicationContext start(String... extraProfiles) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ClinicalSystemApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("h2")
+            .profiles(extraProfiles)
+            .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "spring.jpa.show-sql=false", "logging.level.root=WARN")
+            .run();
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(AppointmentSlotIndex.class).rebuild();
+        context.getBean(DoctorService.class).reloadDirectory();
+        return context;
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> doctors = new ArrayList<>(DOCTORS);
+        for (int i = 1; i <= DOCTORS; i++) {
+            doctors.add(new Object[] {"Dr. Doctor " + i, "doctor" + i + "@clinic.com",
+                SPECIALTIES[i % SPECIALTIES.length], "+1-555-" + i, AVAILABLE_TIMES[i % AVAILABLE_TIMES.length], now});
+        }
+        jdbc.batchUpdate("INSERT INTO doctors (name, email, specialty, phone, available_times, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)", doctors);
+
+        List<Object[]> patients = new ArrayList<>(PATIENTS);
+        for (int i = 1; i <= PATIENTS; i++) {
+            patients.add(new Object[] {"Patient " + i, "patient" + i + "@email.com", "+1-666-" + i, now});
+        }
+        jdbc.batchUpdate("INSERT INTO patients (name, email, phone, created_at) VALUES (?, ?, ?, ?)", patients);
+
+        long id = 0;
+        List<Object[]> appointments = new ArrayList<>(BATCH_SIZE);
+        for (int doctor = 1; doctor <= DOCTORS; doctor++) {
+            for (int k = 0; k < APPOINTMENTS_PER_DOCTOR; k++) {
+                LocalDateTime time = SEEDED_FROM.plusDays(k / 8).plusHours(k % 8);
+                appointments.add(new Object[] {++id, doctor, 1 + (id * 7919) % PATIENTS,
+                    Timestamp.valueOf(time), k % 10 == 0 ? "CANCELLED" : "COMPLETED", now});
+                if (appointments.size() == BATCH_SIZE) {
+                    insertAppointments(jdbc, appointments);
+                }
+            }
+        }
+        insertAppointments(jdbc, appointments);
+        // The pooled optimizer hands out the block ending at the value it reads, so skip one allocation
+        jdbc.execute("ALTER SEQUENCE appointments_seq RESTART WITH " + (id + 50));
+    }
+
+    private static void insertAppointments(JdbcTemplate jdbc, List<Object[]> appointments) {
+        jdbc.batchUpdate("INSERT INTO appointments (id, doctor_id, patient_id, appointment_time, status, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)", appointments);
+        appointments.clear();
+    }
+}
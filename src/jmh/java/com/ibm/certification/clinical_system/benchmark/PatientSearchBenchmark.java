@@ -0,0 +1,80 @@
+package com.ibm.certification.clinical_system.benchmark;
+
+import com.ibm.certification.clinical_system.dto.PatientView;
+import com.ibm.certification.clinical_system.repository.PatientRepository;
+import com.ibm.certification.clinical_system.service.PatientNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reception search-box latency on {@link PatientNameIndex} over 200,000
+ * synthetic patients, for a selective and a very common fragment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PatientSearchBenchmark {
+
+    private static final int PATIENTS = 200_000;
+
+    private static final String[] FIRST_NAMES = {
+        "Alice", "Bob", "Carmen", "David", "Elena", "François", "Grace", "Héctor", "Irene", "José",
+        "Karen", "Luis", "María", "Noah", "Olivia", "Pablo", "Quinn", "Rosa", "Samuel", "Teresa"
+    };
+
+    private static final String[] LAST_NAMES = {
+        "Wilson", "García", "Smith", "Müller", "Johnson", "Ramírez", "Brown", "Lefèvre", "Davis", "Martínez",
+        "Anderson", "López", "Thomas", "González", "Taylor", "Hernández", "Moore", "Pérez", "Jackson", "Sánchez"
+    };
+
+    @Param({"ramirez", "an"})
+    public String query;
+
+    private PatientNameIndex index;
+
+    @Setup
+    public void setUp() {
+        List<PatientView> patients = new ArrayList<>(PATIENTS);
+        for (int i = 1; i <= PATIENTS; i++) {
+            String name = FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / 7) % LAST_NAMES.length] + " " + i;
+            patients.add(new PatientView((long) i, name, "patient" + i + "@email.com", "+1-666-" + i, "", null));
+        }
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        when(patientRepository.findPageAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            int max = invocation.<Limit>getArgument(1).max();
+            return patients.subList((int) afterId, (int) Math.min(afterId + max, PATIENTS));
+        });
+        index = new PatientNameIndex();
+        ReflectionTestUtils.setField(index, "patientRepository", patientRepository);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<PatientView> search() {
+        return index.search(query, 20);
+    }
+}
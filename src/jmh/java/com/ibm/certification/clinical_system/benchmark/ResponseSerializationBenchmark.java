@@ -0,0 +1,87 @@
+package com.ibm.certification.clinical_system.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.certification.clinical_system.dto.DoctorAppointmentView;
+import com.ibm.certification.clinical_system.entity.AppointmentStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and serializing a doctor's daily schedule response the way
+ * the controllers do: a {@code Map} per appointment versus the record view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 10);
+
+    @Param({"16", "200"})
+    public int appointments;
+
+    private ObjectMapper objectMapper;
+
+    private List<DoctorAppointmentView> schedule;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        schedule = new ArrayList<>(appointments);
+        for (int i = 0; i < appointments; i++) {
+            schedule.add(new DoctorAppointmentView((long) i, "Patient " + i, "patient" + i + "@email.com",
+                DAY.atTime(8, 0).plusMinutes(30L * i), AppointmentStatus.SCHEDULED, i % 3 == 0 ? "Follow-up" : ""));
+        }
+    }
+
+    @Benchmark
+    public byte[] mapPerAppointment() throws Exception {
+        List<Map<String, Object>> rows = new ArrayList<>(schedule.size());
+        for (DoctorAppointmentView view : schedule) {
+            rows.add(Map.of(
+                "id", view.id(),
+                "patientName", view.patientName(),
+                "patientEmail", view.patientEmail(),
+                "appointmentTime", view.appointmentTime(),
+                "status", view.status(),
+                "notes", view.notes()
+            ));
+        }
+        return objectMapper.writeValueAsBytes(response(rows));
+    }
+
+    @Benchmark
+    public byte[] recordViews() throws Exception {
+        return objectMapper.writeValueAsBytes(response(schedule));
+    }
+
+    private Map<String, Object> response(List<?> rows) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("doctorId", 1L);
+        response.put("date", DAY);
+        response.put("appointments", rows);
+        response.put("count", rows.size());
+        return response;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ibm.certification.clinical_system.benchmark;
+
+import com.ibm.certification.clinical_system.service.AppointmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of {@value #REQUESTS} concurrent schedule requests, served by the
+ * {@value #PLATFORM_THREADS} platform threads Tomcat uses by default or by one
+ * virtual thread per request. Every request reads a doctor's day from the
+ * seeded H2 dataset through the connection permits of the
+ * {@code virtual-threads} profile. It then blocks for {@code ioMillis}, which
+ * stands in for the client and network time a request spends outside the
+ * database. The virtual mode needs JDK 21 ({@code -Pjava21}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 12, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    private static final int REQUESTS = 2_000;
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    @Param({"0", "50"})
+    public long ioMillis;
+
+    private ConfigurableApplicationContext context;
+
+    private AppointmentService appointmentService;
+
+    private AsyncTaskExecutor executor;
+
+    @Setup
+    public void setUp() {
+        context = ClinicDataset.start("virtual-threads");
+        appointmentService = context.getBean(AppointmentService.class);
+        if (mode.equals("virtual")) {
+            SimpleAsyncTaskExecutor virtualThreads = new SimpleAsyncTaskExecutor("bench-");
+            virtualThreads.setVirtualThreads(true);
+            executor = virtualThreads;
+        } else {
+            ThreadPoolTaskExecutor platformThreads = new ThreadPoolTaskExecutor();
+            platformThreads.setCorePoolSize(PLATFORM_THREADS);
+            platformThreads.setMaxPoolSize(PLATFORM_THREADS);
+            platformThreads.setThreadNamePrefix("bench-");
+            platformThreads.initialize();
+            platformThreads.getThreadPoolExecutor().prestartAllCoreThreads();
+            executor = platformThreads;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor instanceof ThreadPoolTaskExecutor platformThreads) {
+            platformThreads.shutdown();
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public int burst() {
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            long doctorId = 1 + i % ClinicDataset.DOCTORS;
+            requests[i] = CompletableFuture.supplyAsync(() -> handle(doctorId), executor);
+        }
+        CompletableFuture.allOf(requests).join();
+        return requests.length;
+    }
+
+    private int handle(long doctorId) {
+        LocalDate day = ClinicDataset.SEEDED_FROM.toLocalDate();
+        int appointments = appointmentService.getAppointmentsByDoctorAndDate(doctorId, day).size();
+        if (ioMillis > 0) {
+            try {
+                Thread.sleep(ioMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return appointments;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ibm.certification.clinical_system.benchmark;
+
+import com.ibm.certification.clinical_system.service.TokenService;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token validation throughput: {@code perCallParser} reproduces the previous
+ * implementation (fresh key and parser per call), {@code sharedParser} shows the
+ * cost of signature verification alone, and {@code validateToken} is the
+ * cached path a repeated doctor session takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    static final String SECRET = "smartClinicSecretKeyForJWTTokenGenerationThatShouldBeLongEnough";
+
+    private TokenService tokenService;
+
+    private JwtParser sharedParser;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = newTokenService();
+        sharedParser = Jwts.parserBuilder().setSigningKey(tokenService.getSigningKey()).build();
+        token = tokenService.generateJWTToken("john.smith@clinic.com", "DOCTOR");
+    }
+
+    static TokenService newTokenService() {
+        TokenService tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenService, "jwtExpiration", 86_400_000L);
+        tokenService.init();
+        return tokenService;
+    }
+
+    @Benchmark
+    public String generateJWTToken() {
+        return tokenService.generateJWTToken("john.smith@clinic.com", "DOCTOR");
+    }
+
+    @Benchmark
+    public Object perCallParser() {
+        return Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+            .build()
+            .parseClaimsJws(token);
+    }
+
+    @Benchmark
+    public Object sharedParser() {
+        return sharedParser.parseClaimsJws(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenService.validateToken(token);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ibm.certification.clinical_system.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcomes and latencies of one endpoint, recorded from the completion
+ * callbacks of the HTTP client. Latency runs from the moment a request was
+ * scheduled, not from when it was sent, so time spent queued behind a slow
+ * server counts against it.
+ */
+final class EndpointStats {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    final String endpoint;
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+    private final LongAdder ok = new LongAdder();
+
+    private final LongAdder clientErrors = new LongAdder();
+
+    private final LongAdder serverErrors = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(long latencyNanos, int status) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        if (status < 400) {
+            ok.increment();
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    void failed(long latencyNanos) {
+        latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS));
+        failures.increment();
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    long requests() {
+        return ok.sum() + clientErrors.sum() + serverErrors.sum() + failures.sum() + dropped.sum();
+    }
+
+    long errors() {
+        return requests() - ok.sum();
+    }
+
+    double errorRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : (double) errors() / requests;
+    }
+
+    double percentileMillis(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    Map<String, Object> summary(double seconds, double p99BudgetMillis) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", requests());
+        summary.put("ok", ok.sum());
+        summary.put("clientErrors", clientErrors.sum());
+        summary.put("serverErrors", serverErrors.sum());
+        summary.put("failures", failures.sum());
+        summary.put("dropped", dropped.sum());
+        summary.put("throughput", round(ok.sum() / seconds));
+        summary.put("p50Ms", round(percentileMillis(50)));
+        summary.put("p90Ms", round(percentileMillis(90)));
+        summary.put("p99Ms", round(percentileMillis(99)));
+        summary.put("p999Ms", round(percentileMillis(99.9)));
+        summary.put("maxMs", round(latencies.getMaxValue() / 1_000.0));
+        summary.put("p99BudgetMs", p99BudgetMillis);
+        return summary;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,262 @@
+package com.ibm.certification.clinical_system.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.certification.clinical_system.ClinicalSystemApplication;
+import com.ibm.certification.clinical_system.service.AppointmentSlotIndex;
+import com.ibm.certification.clinical_system.service.DoctorService;
+import com.ibm.certification.clinical_system.service.TokenService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load test of the REST API. Boots the application on a random
+ * port against in-memory H2, seeds a clinic of the configured size and then
+ * fires requests at Poisson-distributed arrival times, independent of how
+ * fast the server answers, following a mix of availability lookups, patient
+ * searches, bookings and prescriptions. After a warm-up that is not recorded
+ * it prints throughput and latency percentiles per endpoint, writes them to
+ * a JSON report and exits with status 1 if any endpoint misses its p99
+ * budget or error-rate limit.
+ * <p>
+ * Profiles shape the arrival rate over the measured window: {@code steady}
+ * holds {@code rate}, {@code ramp} climbs from 10% to 100% of it and
+ * {@code spike} triples it for the middle fifth.
+ */
+public final class LoadTest {
+
+    static final String AVAILABILITY = "availability";
+
+    static final String PATIENT_SEARCH = "patient-search";
+
+    static final String BOOK = "book";
+
+    static final String PRESCRIBE = "prescribe";
+
+    static final Set<String> PROFILES = Set.of("steady", "ramp", "spike");
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final LocalDateTime BOOKINGS_FROM = LocalDateTime.of(2040, 1, 2, 0, 0);
+
+    private final LoadTestOptions options;
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong bookings = new AtomicLong();
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private final String[] weightedEndpoints;
+
+    private String baseUrl;
+
+    private String doctorToken;
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+        List<String> weighted = new ArrayList<>();
+        options.mix().forEach((endpoint, weight) -> {
+            stats.put(endpoint, new EndpointStats(endpoint));
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        });
+        this.weightedEndpoints = weighted.toArray(String[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean passed;
+        try (ConfigurableApplicationContext context = start(options)) {
+            LoadTest loadTest = new LoadTest(options);
+            loadTest.baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            loadTest.doctorToken = context.getBean(TokenService.class)
+                .generateJWTToken(LoadTestDataset.doctorEmail(1), "DOCTOR");
+            passed = loadTest.run();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext start(LoadTestOptions options) {
+        System.out.printf("Seeding %,d doctors, %,d patients and %,d appointments%n", options.doctors(),
+            options.patients(), (long) options.doctors() * options.appointmentsPerDoctor());
+        // DevTools would restart the application, and with it this main method, in a fresh class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ClinicalSystemApplication.class)
+            .profiles("h2")
+            .properties("server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=MySQL",
+                "spring.jpa.show-sql=false", "logging.level.root=WARN")
+            .run();
+        LoadTestDataset.seed(context.getBean(JdbcTemplate.class), options);
+        context.getBean(AppointmentSlotIndex.class).rebuild();
+        context.getBean(DoctorService.class).reloadDirectory();
+        return context;
+    }
+
+    private boolean run() throws Exception {
+        long warmupNanos = options.warmup().toNanos();
+        long measuredNanos = options.duration().toNanos();
+        System.out.printf("Warming up for %ds, then %s load at %.0f req/s for %ds%n", options.warmup().toSeconds(),
+            options.profile(), options.rate(), options.duration().toSeconds());
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + measuredNanos;
+        long next = start;
+        while (next - end < 0) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(weightedEndpoints[random.nextInt(weightedEndpoints.length)], next, next - measureFrom >= 0);
+            double rate = rateAt(next - measureFrom, measuredNanos);
+            // Exponential gaps make the arrivals a Poisson process
+            next += (long) (-Math.log(1 - random.nextDouble()) / rate * 1_000_000_000L);
+        }
+
+        long drainDeadline = System.nanoTime() + REQUEST_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() - drainDeadline < 0) {
+            Thread.sleep(10);
+        }
+        return report(measuredNanos / 1_000_000_000.0);
+    }
+
+    private double rateAt(long elapsedNanos, long measuredNanos) {
+        if (elapsedNanos < 0) {
+            return options.rate();
+        }
+        double progress = (double) elapsedNanos / measuredNanos;
+        return switch (options.profile()) {
+            case "ramp" -> options.rate() * (0.1 + 0.9 * progress);
+            case "spike" -> progress >= 0.4 && progress < 0.6 ? options.rate() * 3 : options.rate();
+            default -> options.rate();
+        };
+    }
+
+    private void fire(String endpoint, long scheduledAt, boolean measured) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        if (inFlight.get() >= options.maxInFlight()) {
+            if (measured) {
+                endpointStats.dropped();
+            }
+            return;
+        }
+        inFlight.incrementAndGet();
+        client.sendAsync(request(endpoint), HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, error) -> {
+                inFlight.decrementAndGet();
+                if (!measured) {
+                    return;
+                }
+                long latency = System.nanoTime() - scheduledAt;
+                if (error != null) {
+                    endpointStats.failed(latency);
+                } else {
+                    endpointStats.record(latency, response.statusCode());
+                }
+            });
+    }
+
+    private HttpRequest request(String endpoint) {
+        long doctor = 1 + random.nextInt(options.doctors());
+        long patient = 1 + random.nextInt(options.patients());
+        return switch (endpoint) {
+            case AVAILABILITY -> get("/api/doctors/availability/" + doctor + "?date="
+                + LocalDate.now().plusDays(1 + random.nextInt(30)));
+            case PATIENT_SEARCH -> get("/api/patients/search?email=" + LoadTestDataset.patientEmail(patient));
+            case BOOK -> {
+                // Every booking gets a slot of its own, so conflicts point at a bug rather than the mix
+                long booking = bookings.getAndIncrement();
+                long bookedDoctor = 1 + booking % options.doctors();
+                LocalDateTime slot = BOOKINGS_FROM.plusMinutes(30 * (booking / options.doctors()));
+                yield post("/api/appointments", "{\"doctorId\":" + bookedDoctor + ",\"patientId\":" + patient
+                    + ",\"appointmentTime\":\"" + slot + "\",\"notes\":\"Load test\"}")
+                    .build();
+            }
+            case PRESCRIBE -> post("/api/prescriptions", "{\"doctorId\":" + doctor + ",\"patientId\":" + patient
+                + ",\"medication\":\"Amoxicillin\",\"dosage\":\"500mg\",\"instructions\":\"Three times daily\"}")
+                .header("Authorization", "Bearer " + doctorToken)
+                .build();
+            default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private boolean report(double seconds) throws Exception {
+        boolean passed = true;
+        long totalOk = 0;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("%n%-15s %9s %9s %8s %9s %9s %9s %9s %9s %9s  %s%n", "endpoint", "requests", "errors",
+            "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "budget", "result");
+        for (EndpointStats endpointStats : stats.values()) {
+            double budget = options.p99BudgetMillis(endpointStats.endpoint);
+            Map<String, Object> summary = endpointStats.summary(seconds, budget);
+            boolean ok = endpointStats.percentileMillis(99) <= budget
+                && endpointStats.errorRate() <= options.maxErrorRate();
+            summary.put("passed", ok);
+            endpoints.put(endpointStats.endpoint, summary);
+            passed &= ok;
+            totalOk += (long) summary.get("ok");
+            System.out.printf("%-15s %9d %9d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n", endpointStats.endpoint,
+                summary.get("requests"), endpointStats.errors(), summary.get("throughput"), summary.get("p50Ms"),
+                summary.get("p90Ms"), summary.get("p99Ms"), summary.get("p999Ms"), summary.get("maxMs"), budget,
+                ok ? "PASS" : "FAIL");
+        }
+        System.out.printf("%nThroughput: %.1f successful req/s over %.0fs%n", totalOk / seconds, seconds);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("profile", options.profile());
+        result.put("targetRate", options.rate());
+        result.put("durationSeconds", seconds);
+        result.put("doctors", options.doctors());
+        result.put("patients", options.patients());
+        result.put("throughput", Math.round(totalOk / seconds * 10) / 10.0);
+        result.put("passed", passed);
+        result.put("endpoints", endpoints);
+        File reportFile = new File(options.report());
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile, result);
+        System.out.println("Report written to " + reportFile.getPath());
+        return passed;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ibm.certification.clinical_system.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds the clinic the load test runs against: doctors with working hours,
+ * patients, and a history of past appointments per doctor.
+ */
+final class LoadTestDataset {
+
+    static final LocalDateTime HISTORY_FROM = LocalDateTime.of(2024, 1, 8, 9, 0);
+
+    private static final String[] SPECIALTIES = {
+        "Cardiology", "Dermatology", "Neurology", "Pediatrics", "Orthopedics",
+        "Oncology", "Psychiatry", "Radiology", "Urology", "General Practice"
+    };
+
+    private static final String[] AVAILABLE_TIMES = {
+        "09:00,10:00,11:00,14:00,15:00,16:00",
+        "08:00-12:00,13:00-17:00",
+        "10:00-18:00"
+    };
+
+    private static final int BATCH_SIZE = 5_000;
+
+    private LoadTestDataset() {}
+
+    static String doctorEmail(long doctor) {
+        return "doctor" + doctor + "@clinic.com";
+    }
+
+    static String patientEmail(long patient) {
+        return "patient" + patient + "@email.com";
+    }
+
+    static void seed(JdbcTemplate jdbc, LoadTestOptions options) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> doctors = new ArrayList<>(options.doctors());
+        for (int i = 1; i <= options.doctors(); i++) {
+            doctors.add(new Object[] {"Dr. Doctor " + i, doctorEmail(i), SPECIALTIES[i % SPECIALTIES.length],
+                "+1-555-" + i, AVAILABLE_TIMES[i % AVAILABLE_TIMES.length], now});
+        }
+        jdbc.batchUpdate("INSERT INTO doctors (name, email, specialty, phone, available_times, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)", doctors);
+
+        List<Object[]> patients = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= options.patients(); i++) {
+            patients.add(new Object[] {"Patient " + i, patientEmail(i), "+1-666-" + i, now});
+            if (patients.size() == BATCH_SIZE || i == options.patients()) {
+                jdbc.batchUpdate("INSERT INTO patients (name, email, phone, created_at) VALUES (?, ?, ?, ?)",
+                    patients);
+                patients.clear();
+            }
+        }
+
+        long id = 0;
+        List<Object[]> appointments = new ArrayList<>(BATCH_SIZE);
+        for (int doctor = 1; doctor <= options.doctors(); doctor++) {
+            for (int k = 0; k < options.appointmentsPerDoctor(); k++) {
+                LocalDateTime time = HISTORY_FROM.plusDays(k / 6).plusHours(k % 6);
+                appointments.add(new Object[] {++id, doctor, 1 + (id * 7919) % options.patients(),
+                    Timestamp.valueOf(time), k % 10 == 0 ? "CANCELLED" : "COMPLETED", now});
+                if (appointments.size() == BATCH_SIZE) {
+                    insertAppointments(jdbc, appointments);
+                }
+            }
+        }
+        insertAppointments(jdbc, appointments);
+        // The pooled optimizer hands out the block ending at the value it reads, so skip one allocation
+        jdbc.execute("ALTER SEQUENCE appointments_seq RESTART WITH " + (id + 50));
+    }
+
+    private static void insertAppointments(JdbcTemplate jdbc, List<Object[]> appointments) {
+        if (appointments.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate("INSERT INTO appointments (id, doctor_id, patient_id, appointment_time, status, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)", appointments);
+        appointments.clear();
+    }
+}
@@ -0,0 +1,100 @@
+package com.ibm.certification.clinical_system.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command-line options of {@link LoadTest}, given as {@code --name=value}.
+ * Durations take an {@code ms}, {@code s} or {@code m} suffix.
+ */
+record LoadTestOptions(
+    int doctors,
+    int patients,
+    int appointmentsPerDoctor,
+    double rate,
+    String profile,
+    Duration warmup,
+    Duration duration,
+    Map<String, Integer> mix,
+    double defaultP99Millis,
+    Map<String, Double> p99Millis,
+    double maxErrorRate,
+    int maxInFlight,
+    String report) {
+
+    static final Map<String, Integer> DEFAULT_MIX = Map.of(
+        LoadTest.AVAILABILITY, 40, LoadTest.PATIENT_SEARCH, 30, LoadTest.BOOK, 20, LoadTest.PRESCRIBE, 10);
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        Map<String, Double> budgets = new LinkedHashMap<>();
+        values.forEach((name, value) -> {
+            if (name.startsWith("p99-ms.")) {
+                budgets.put(name.substring("p99-ms.".length()), Double.parseDouble(value));
+            }
+        });
+
+        LoadTestOptions options = new LoadTestOptions(
+            Integer.parseInt(values.getOrDefault("doctors", "200")),
+            Integer.parseInt(values.getOrDefault("patients", "5000")),
+            Integer.parseInt(values.getOrDefault("appointments-per-doctor", "50")),
+            Double.parseDouble(values.getOrDefault("rate", "100")),
+            values.getOrDefault("profile", "steady"),
+            duration(values.getOrDefault("warmup", "15s")),
+            duration(values.getOrDefault("duration", "60s")),
+            values.containsKey("mix") ? mix(values.get("mix")) : DEFAULT_MIX,
+            Double.parseDouble(values.getOrDefault("p99-ms", "250")),
+            budgets,
+            Double.parseDouble(values.getOrDefault("max-error-rate", "0.01")),
+            Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+            values.getOrDefault("report", "target/loadtest-result.json"));
+        if (!LoadTest.PROFILES.contains(options.profile())) {
+            throw new IllegalArgumentException("Unknown profile " + options.profile() + ", expected one of "
+                + LoadTest.PROFILES);
+        }
+        for (String endpoint : options.mix().keySet()) {
+            if (!DEFAULT_MIX.containsKey(endpoint)) {
+                throw new IllegalArgumentException("Unknown endpoint " + endpoint + " in mix, expected "
+                    + DEFAULT_MIX.keySet());
+            }
+        }
+        return options;
+    }
+
+    double p99BudgetMillis(String endpoint) {
+        return p99Millis.getOrDefault(endpoint, defaultP99Millis);
+    }
+
+    private static Map<String, Integer> mix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    static Duration duration(String value) {
+        String lower = value.trim().toLowerCase(Locale.ROOT);
+        if (lower.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(lower.substring(0, lower.length() - 2)));
+        }
+        if (lower.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(lower.substring(0, lower.length() - 1)));
+        }
+        if (lower.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(lower.substring(0, lower.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(lower));
+    }
+}
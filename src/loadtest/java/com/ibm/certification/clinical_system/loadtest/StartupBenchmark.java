@@ -0,0 +1,192 @@
+package com.ibm.certification.clinical_system.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start benchmark: the time from launching the application's JVM to its
+ * first successful answer on {@code path}, for the plain jar with the default
+ * configuration and for the {@code fast-startup} build, which runs the
+ * extracted jar with AOT-processed bean definitions, the CDS archive and the
+ * {@code prod} profile. Both run against the same, already migrated database.
+ * Each variant is started once untimed to warm the file cache, then the
+ * variants take turns for {@code runs} timed starts each. Prints the minimum,
+ * median and maximum per variant, writes them to a JSON report and exits with
+ * status 1 if any start fails.
+ */
+public final class StartupBenchmark {
+
+    private static final String DEFAULT = "default";
+
+    private static final String FAST_STARTUP = "fast-startup";
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+
+    private static final Duration STOP_TIMEOUT = Duration.ofSeconds(30);
+
+    private final StartupBenchmarkOptions options;
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(1))
+        .build();
+
+    private final Map<String, List<String>> commands = new LinkedHashMap<>();
+
+    private final Map<String, List<Long>> startupMillis = new LinkedHashMap<>();
+
+    private StartupBenchmark(StartupBenchmarkOptions options) {
+        this.options = options;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path jar = Path.of(options.jar());
+        Path extractedJar = Path.of(options.appDir()).resolve(jar.getFileName());
+        Path archive = Path.of(options.appDir(), "application.jsa");
+        for (Path required : List.of(jar, extractedJar, archive)) {
+            if (!Files.exists(required)) {
+                throw new IllegalStateException(required + " not found, build with -Pfast-startup first");
+            }
+        }
+        commands.put(DEFAULT, List.of(java, "-jar", jar.toString()));
+        commands.put(FAST_STARTUP, List.of(java, "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+            "-jar", extractedJar.toString(), "--spring.profiles.active=prod"));
+        commands.keySet().forEach(variant -> startupMillis.put(variant, new ArrayList<>()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        StartupBenchmark benchmark = new StartupBenchmark(StartupBenchmarkOptions.parse(args));
+        System.exit(benchmark.run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        Files.createDirectories(Path.of(options.logDir()));
+        System.out.printf("Timing %d cold starts per variant until GET %s answers 200%n", options.runs(),
+            options.path());
+        for (String variant : commands.keySet()) {
+            if (start(variant, "warmup") < 0) {
+                return false;
+            }
+        }
+        for (int run = 1; run <= options.runs(); run++) {
+            for (String variant : commands.keySet()) {
+                long millis = start(variant, Integer.toString(run));
+                if (millis < 0) {
+                    return false;
+                }
+                startupMillis.get(variant).add(millis);
+                System.out.printf("  %-13s run %d: %,d ms%n", variant, run, millis);
+            }
+        }
+        report();
+        return true;
+    }
+
+    /**
+     * Launches one instance and returns the milliseconds until its first
+     * successful request, or -1 if it exited or timed out first.
+     */
+    private long start(String variant, String run) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(commands.get(variant));
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=" + options.datasourceUrl());
+        command.add("--spring.datasource.username=" + options.username());
+        command.add("--spring.datasource.password=" + options.password());
+        File log = Path.of(options.logDir(), variant + "-" + run + ".log").toFile();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + options.path()))
+            .timeout(Duration.ofSeconds(5))
+            .GET()
+            .build();
+
+        long launchedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            long deadline = launchedAt + options.timeout().toNanos();
+            while (System.nanoTime() - deadline < 0) {
+                if (!process.isAlive()) {
+                    System.out.printf("%s exited with status %d before answering, see %s%n", variant,
+                        process.exitValue(), log);
+                    return -1;
+                }
+                if (succeeds(request)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchedAt);
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            System.out.printf("%s did not answer within %ds, see %s%n", variant, options.timeout().toSeconds(), log);
+            return -1;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(STOP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private boolean succeeds(HttpRequest request) throws InterruptedException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            // Not listening yet
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private void report() throws IOException {
+        Map<String, Object> variants = new LinkedHashMap<>();
+        System.out.printf("%n%-13s %6s %9s %9s %9s%n", "variant", "runs", "min ms", "median ms", "max ms");
+        for (Map.Entry<String, List<Long>> entry : startupMillis.entrySet()) {
+            List<Long> sorted = entry.getValue().stream().sorted().toList();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("command", commands.get(entry.getKey()));
+            summary.put("runsMs", entry.getValue());
+            summary.put("minMs", sorted.get(0));
+            summary.put("medianMs", median(sorted));
+            summary.put("maxMs", sorted.get(sorted.size() - 1));
+            variants.put(entry.getKey(), summary);
+            System.out.printf("%-13s %6d %9d %9d %9d%n", entry.getKey(), sorted.size(), sorted.get(0), median(sorted),
+                sorted.get(sorted.size() - 1));
+        }
+        double speedup = (double) median(startupMillis.get(DEFAULT).stream().sorted().toList())
+            / median(startupMillis.get(FAST_STARTUP).stream().sorted().toList());
+        System.out.printf("%nMedian time to first successful request is %.2fx faster with %s%n", speedup,
+            FAST_STARTUP);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("path", options.path());
+        result.put("runs", options.runs());
+        result.put("speedup", Math.round(speedup * 100) / 100.0);
+        result.put("variants", variants);
+        File reportFile = new File(options.report());
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile, result);
+        System.out.println("Report written to " + reportFile.getPath());
+    }
+
+    private static long median(List<Long> sorted) {
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ibm.certification.clinical_system.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command-line options of {@link StartupBenchmark}, given as {@code --name=value}.
+ * The datasource defaults match {@code application.yml}.
+ */
+record StartupBenchmarkOptions(
+    int runs,
+    String jar,
+    String appDir,
+    String path,
+    String datasourceUrl,
+    String username,
+    String password,
+    Duration timeout,
+    String logDir,
+    String report) {
+
+    static StartupBenchmarkOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+
+        StartupBenchmarkOptions options = new StartupBenchmarkOptions(
+            Integer.parseInt(values.getOrDefault("runs", "5")),
+            values.getOrDefault("jar", "target/clinical_system-0.0.1-SNAPSHOT.jar"),
+            values.getOrDefault("app-dir", "target/app"),
+            values.getOrDefault("path", "/api/doctors"),
+            values.getOrDefault("datasource-url",
+                "jdbc:mysql://localhost:3306/smart_clinic_db?rewriteBatchedStatements=true&useCursorFetch=true"),
+            values.getOrDefault("username", "root"),
+            values.getOrDefault("password", "password"),
+            LoadTestOptions.duration(values.getOrDefault("timeout", "180s")),
+            values.getOrDefault("log-dir", "target/startup-benchmark"),
+            values.getOrDefault("report", "target/startup-benchmark.json"));
+        if (options.runs() < 1) {
+            throw new IllegalArgumentException("runs must be at least 1");
+        }
+        return options;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ibm.certification.clinical_system.config;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty("clinic.datasource.permits")
+public class ConnectionPermitConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionPermitPostProcessor(Environment environment) {
+        int permits = environment.getRequiredProperty("clinic.datasource.permits", Integer.class);
+        long timeoutMillis = environment.getProperty("clinic.datasource.permit-timeout-ms", Long.class, 30_000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConnectionPermitDataSource)) {
+                    return new ConnectionPermitDataSource(dataSource, permits, timeoutMillis);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionPermitMetrics(DataSource dataSource) {
+        return registry -> {
+            ConnectionPermitDataSource permits = DataSourceUnwrapper.unwrap(dataSource, ConnectionPermitDataSource.class);
+            if (permits == null) {
+                return;
+            }
+            Gauge.builder("clinic.datasource.permits.available", permits, ConnectionPermitDataSource::availablePermits)
+                .register(registry);
+            Gauge.builder("clinic.datasource.permits.waiting", permits, ConnectionPermitDataSource::queueLength)
+                .register(registry);
+            FunctionTimer.builder("clinic.datasource.permits.wait", permits,
+                    ConnectionPermitDataSource::acquisitions, ConnectionPermitDataSource::waitNanos, TimeUnit.NANOSECONDS)
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.ibm.certification.clinical_system.config;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Tracks how far the read replica trails the primary, using the id of the
+ * last row in the change outbox: every write transaction appends one. Each
+ * check reads the primary's high-water mark first and the replica's second, so
+ * once the replica has reached a mark it holds every write committed before
+ * that mark was read. Reads may use the replica only if it is fresh as of this
+ * node's last committed write and has not fallen more than {@code maxLag}
+ * behind, which gives read-your-writes for bookings made through this node.
+ */
+public class ReplicaLagMonitor {
+
+    private static final String HIGH_WATER_MARK_SQL = "SELECT COALESCE(MAX(id), 0) FROM outbox_events";
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final JdbcTemplate primary;
+
+    private final JdbcTemplate replica;
+
+    private final long maxLagNanos;
+
+    private final ArrayDeque<Sample> samples = new ArrayDeque<>();
+
+    private volatile long freshAsOf = NEVER;
+
+    private volatile long lastWriteAt = NEVER;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagNanos = maxLag.toNanos();
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.datasource.replica.monitor-interval-ms:200}")
+    public synchronized void check() {
+        long now = System.nanoTime();
+        long replicaMark;
+        try {
+            samples.addLast(new Sample(now, primary.queryForObject(HIGH_WATER_MARK_SQL, Long.class)));
+            replicaMark = replica.queryForObject(HIGH_WATER_MARK_SQL, Long.class);
+        } catch (DataAccessException e) {
+            // An unreachable replica simply stops getting fresher and ages out after maxLag
+            return;
+        }
+
+        Iterator<Sample> newestFirst = samples.descendingIterator();
+        while (newestFirst.hasNext()) {
+            Sample sample = newestFirst.next();
+            if (sample.mark() <= replicaMark) {
+                if (freshAsOf == NEVER || sample.takenAt() - freshAsOf > 0) {
+                    freshAsOf = sample.takenAt();
+                }
+                break;
+            }
+        }
+        while (samples.size() > 1 && (now - samples.peekFirst().takenAt() > maxLagNanos
+                || (freshAsOf != NEVER && samples.peekFirst().takenAt() - freshAsOf <= 0))) {
+            samples.removeFirst();
+        }
+    }
+
+    public void recordWrite() {
+        lastWriteAt = System.nanoTime();
+    }
+
+    public boolean isReplicaUsable() {
+        long fresh = freshAsOf;
+        if (fresh == NEVER || System.nanoTime() - fresh > maxLagNanos) {
+            return false;
+        }
+        long lastWrite = lastWriteAt;
+        return lastWrite == NEVER || fresh - lastWrite >= 0;
+    }
+
+    /**
+     * How far behind the replica was at the last check, or -1 if it has never
+     * been seen in sync.
+     */
+    public long lagMillis() {
+        long fresh = freshAsOf;
+        return fresh == NEVER ? -1 : Duration.ofNanos(System.nanoTime() - fresh).toMillis();
+    }
+
+    private record Sample(long takenAt, long mark) {}
+}
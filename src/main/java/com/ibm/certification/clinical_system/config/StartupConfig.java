@@ -0,0 +1,33 @@
+package com.ibm.certification.clinical_system.config;
+
+import com.ibm.certification.clinical_system.service.AppointmentSlotIndex;
+import com.ibm.certification.clinical_system.service.DoctorService;
+import com.ibm.certification.clinical_system.service.PatientNameIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Beans that stay eager when {@code spring.main.lazy-initialization} is on, as
+ * it is in the {@code prod} profile: the in-memory indexes and the doctor
+ * directory are loaded before the node takes traffic rather than by its first
+ * requests. Spring Boot already keeps beans with scheduled methods eager.
+ * <p>
+ * {@code clinic.startup.warm-up=false} keeps only the JPA bootstrap eager. The
+ * class-data-sharing training run uses it to refresh the context without a
+ * database.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerClinicBeans(Environment environment) {
+        if (!environment.getProperty("clinic.startup.warm-up", Boolean.class, true)) {
+            return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class);
+        }
+        return LazyInitializationExcludeFilter.forBeanTypes(AppointmentSlotIndex.class, PatientNameIndex.class,
+            DoctorService.class);
+    }
+}
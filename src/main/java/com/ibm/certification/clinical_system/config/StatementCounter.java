@@ -0,0 +1,33 @@
+package com.ibm.certification.clinical_system.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * count is open. Registered through
+ * {@code hibernate.session_factory.statement_inspector}; the SQL passes
+ * through unchanged.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    static void open() {
+        COUNT.set(new int[1]);
+    }
+
+    static int close() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
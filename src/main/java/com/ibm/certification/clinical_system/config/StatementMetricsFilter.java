@@ -0,0 +1,58 @@
+package com.ibm.certification.clinical_system.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request ran as
+ * {@code clinic.hibernate.statements}, tagged with the request's URI pattern.
+ * Only statements run on the request thread are counted, so the body of an
+ * NDJSON stream is not included.
+ */
+@Component
+public class StatementMetricsFilter extends OncePerRequestFilter {
+
+    public static final String METRIC = "clinic.hibernate.statements";
+
+    private static final double[] BUCKETS = {1, 2, 3, 5, 10, 20, 50, 100};
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCounter.open();
+        int statements;
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statements = StatementCounter.close();
+        }
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            DistributionSummary.builder(METRIC)
+                .tag("method", request.getMethod())
+                .tag("uri", pattern.toString())
+                .serviceLevelObjectives(BUCKETS)
+                .register(meterRegistry)
+                .record(statements);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+}
@@ -1,14 +1,22 @@
 package com.ibm.certification.clinical_system.controller;
 
+import com.ibm.certification.clinical_system.dto.AppointmentRequest;
+import com.ibm.certification.clinical_system.dto.AppointmentView;
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.DoctorAppointmentView;
+import com.ibm.certification.clinical_system.dto.PatientAppointmentView;
 import com.ibm.certification.clinical_system.entity.Appointment;
 import com.ibm.certification.clinical_system.service.AppointmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,17 +29,47 @@ public class AppointmentController {
     @Autowired
     private AppointmentService appointmentService;
     
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+    
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<Map<String, Object>> getAppointments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        
+        try {
+            CursorPage<AppointmentView> page = appointmentService.getAppointments(
+                ContinuationToken.decode(cursor), CursorPage.checkLimit(limit));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("appointments", page.items());
+            response.put("count", page.items().size());
+            response.put("nextCursor", page.nextCursor());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping(produces = NdjsonStreamer.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAppointments(@RequestParam(required = false) String cursor) {
+        try {
+            ContinuationToken after = ContinuationToken.decode(cursor);
+            long afterId = after != null ? after.idOrZero() : 0L;
+            return ndjsonStreamer.<AppointmentView>stream(sink -> appointmentService.streamAppointments(afterId, sink));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<Map<String, Object>> bookAppointment(@RequestBody Map<String, Object> appointmentData) {
         try {
-            Long doctorId = Long.valueOf(appointmentData.get("doctorId").toString());
-            Long patientId = Long.valueOf(appointmentData.get("patientId").toString());
-            String appointmentTimeStr = appointmentData.get("appointmentTime").toString();
-            String notes = appointmentData.get("notes") != null ? appointmentData.get("notes").toString() : "";
-            
-            LocalDateTime appointmentTime = LocalDateTime.parse(appointmentTimeStr);
+            AppointmentRequest request = AppointmentRequest.fromMap(appointmentData);
             
-            Appointment appointment = appointmentService.bookAppointment(doctorId, patientId, appointmentTime, notes);
+            Appointment appointment = appointmentService.bookAppointment(
+                request.doctorId(), request.patientId(), request.appointmentTime(), request.notes());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -55,25 +93,67 @@ public class AppointmentController {
         }
     }
     
-    @GetMapping("/doctor/{doctorId}/date/{date}")
-    public ResponseEntity<Map<String, Object>> getAppointmentsByDoctorAndDate(
-            @PathVariable Long doctorId,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> bookAppointments(@RequestBody List<Map<String, Object>> appointmentsData) {
         try {
-            List<Appointment> appointments = appointmentService.getAppointmentsByDoctorAndDate(doctorId, date);
+            List<AppointmentRequest> requests = appointmentsData.stream().map(AppointmentRequest::fromMap).toList();
+            
+            List<Appointment> appointments = appointmentService.bookAppointments(requests);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("doctorId", doctorId);
-            response.put("date", date);
+            response.put("success", true);
+            response.put("count", appointments.size());
+            response.put("message", "Appointments booked successfully");
             response.put("appointments", appointments.stream().map(appointment -> Map.of(
                 "id", appointment.getId(),
+                "doctorName", appointment.getDoctor().getName(),
                 "patientName", appointment.getPatient().getName(),
-                "patientEmail", appointment.getPatient().getEmail(),
                 "appointmentTime", appointment.getAppointmentTime(),
                 "status", appointment.getStatus(),
                 "notes", appointment.getNotes() != null ? appointment.getNotes() : ""
             )).toList());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "error", e.getMessage()
+            ));
+        }
+    }
+    
+    @GetMapping("/doctor/{doctorId}/date/{date}")
+    public ResponseEntity<Map<String, Object>> getAppointmentsByDoctorAndDate(
+            @PathVariable Long doctorId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        
+        try {
+            List<DoctorAppointmentView> appointments = appointmentService.getAppointmentsByDoctorAndDate(doctorId, date);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("doctorId", doctorId);
+            response.put("date", date);
+            response.put("appointments", appointments);
+            response.put("count", appointments.size());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/doctor/{doctorId}/week/{date}")
+    public ResponseEntity<Map<String, Object>> getAppointmentsByDoctorForWeek(
+            @PathVariable Long doctorId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        
+        try {
+            List<DoctorAppointmentView> appointments = appointmentService.getAppointmentsByDoctorForWeek(doctorId, date);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("doctorId", doctorId);
+            response.put("weekStart", date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+            response.put("appointments", appointments);
             response.put("count", appointments.size());
             
             return ResponseEntity.ok(response);
@@ -85,25 +165,23 @@ public class AppointmentController {
     @GetMapping("/patient/search")
     public ResponseEntity<Map<String, Object>> getAppointmentsByPatientCredentials(
             @RequestParam(required = false) String email,
-            @RequestParam(required = false) String phone) {
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
         
         if ((email == null || email.isEmpty()) && (phone == null || phone.isEmpty())) {
             return ResponseEntity.badRequest().body(Map.of("error", "Email or phone is required"));
         }
         
         try {
-            List<Appointment> appointments = appointmentService.getAppointmentsByPatientCredentials(email, phone);
+            CursorPage<PatientAppointmentView> page = appointmentService.getAppointmentsByPatientCredentials(
+                email, phone, ContinuationToken.decode(cursor), CursorPage.checkLimit(limit), includeArchived);
             
             Map<String, Object> response = new HashMap<>();
-            response.put("appointments", appointments.stream().map(appointment -> Map.of(
-                "id", appointment.getId(),
-                "doctorName", appointment.getDoctor().getName(),
-                "doctorSpecialty", appointment.getDoctor().getSpecialty(),
-                "appointmentTime", appointment.getAppointmentTime(),
-                "status", appointment.getStatus(),
-                "notes", appointment.getNotes() != null ? appointment.getNotes() : ""
-            )).toList());
-            response.put("count", appointments.size());
+            response.put("appointments", page.items());
+            response.put("count", page.items().size());
+            response.put("nextCursor", page.nextCursor());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -1,5 +1,10 @@
 package com.ibm.certification.clinical_system.controller;
 
+import com.ibm.certification.clinical_system.dto.AvailableSlot;
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.DoctorAvailability;
+import com.ibm.certification.clinical_system.dto.DoctorView;
 import com.ibm.certification.clinical_system.entity.Doctor;
 import com.ibm.certification.clinical_system.service.DoctorService;
 import com.ibm.certification.clinical_system.service.TokenService;
@@ -19,16 +24,33 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class DoctorController {
     
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     @Autowired
     private DoctorService doctorService;
     
     @Autowired
     private TokenService tokenService;
     
+    @Autowired
+    private DoctorDirectoryRenderer directoryRenderer;
+    
+    @GetMapping(params = {"!cursor", "!limit"})
+    public ResponseEntity<byte[]> getAllDoctors() {
+        return directoryRenderer.allDoctors();
+    }
+    
     @GetMapping
-    public ResponseEntity<List<Doctor>> getAllDoctors() {
-        List<Doctor> doctors = doctorService.getAllDoctors();
-        return ResponseEntity.ok(doctors);
+    public ResponseEntity<List<DoctorView>> getDoctorsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        try {
+            int pageSize = CursorPage.checkLimit(limit != null ? limit : CursorPage.DEFAULT_LIMIT);
+            return pageResponse(doctorService.getDoctors(ContinuationToken.decode(cursor), pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @GetMapping("/availability/{doctorId}")
@@ -36,22 +58,52 @@ public class DoctorController {
             @PathVariable Long doctorId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
         
-        Optional<Doctor> doctorOpt = doctorService.getDoctorById(doctorId);
-        if (!doctorOpt.isPresent()) {
+        Optional<DoctorAvailability> availabilityOpt = doctorService.getAvailability(doctorId, date);
+        if (!availabilityOpt.isPresent()) {
             return ResponseEntity.notFound().build();
         }
         
-        List<String> availableSlots = doctorService.getAvailableTimeSlots(doctorId, date);
+        DoctorAvailability availability = availabilityOpt.get();
         
         Map<String, Object> response = new HashMap<>();
         response.put("doctorId", doctorId);
-        response.put("doctorName", doctorOpt.get().getName());
+        response.put("doctorName", availability.doctorName());
         response.put("date", date);
-        response.put("availableTimeSlots", availableSlots);
+        response.put("availableTimeSlots", availability.availableTimeSlots());
         
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/availability/search")
+    public ResponseEntity<Map<String, Object>> searchAvailability(
+            @RequestParam String specialty,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Limit must be between 1 and 100"));
+        }
+        
+        LocalDate fromDate = from != null ? from : LocalDate.now();
+        LocalDate toDate = to != null ? to : fromDate.plusDays(6);
+        
+        try {
+            List<AvailableSlot> slots = doctorService.searchAvailability(specialty, fromDate, toDate, limit);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("specialty", specialty);
+            response.put("from", fromDate);
+            response.put("to", toDate);
+            response.put("slots", slots);
+            response.put("count", slots.size());
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @PostMapping("/validate")
     public ResponseEntity<Map<String, Object>> validateDoctorCredentials(@RequestBody Map<String, String> credentials) {
         String email = credentials.get("email");
@@ -76,10 +128,23 @@ public class DoctorController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping(value = "/specialty/{specialty}", params = {"!cursor", "!limit"})
+    public ResponseEntity<byte[]> getDoctorsBySpecialty(@PathVariable String specialty) {
+        return directoryRenderer.doctorsBySpecialty(specialty);
+    }
+    
     @GetMapping("/specialty/{specialty}")
-    public ResponseEntity<List<Doctor>> getDoctorsBySpecialty(@PathVariable String specialty) {
-        List<Doctor> doctors = doctorService.getDoctorsBySpecialty(specialty);
-        return ResponseEntity.ok(doctors);
+    public ResponseEntity<List<DoctorView>> getDoctorsBySpecialtyPage(
+            @PathVariable String specialty,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        
+        try {
+            int pageSize = CursorPage.checkLimit(limit != null ? limit : CursorPage.DEFAULT_LIMIT);
+            return pageResponse(doctorService.getDoctorsBySpecialty(specialty, ContinuationToken.decode(cursor), pageSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     @PostMapping
@@ -91,4 +156,12 @@ public class DoctorController {
             return ResponseEntity.badRequest().build();
         }
     }
+    
+    private static ResponseEntity<List<DoctorView>> pageResponse(CursorPage<DoctorView> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.ibm.certification.clinical_system.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.certification.clinical_system.dto.DoctorView;
+import com.ibm.certification.clinical_system.service.DoctorDirectory;
+import com.ibm.certification.clinical_system.service.DoctorService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the doctor directory responses as serialized JSON, so the busiest
+ * public endpoint writes a prepared byte array instead of running Jackson.
+ * A rendering belongs to one directory snapshot and is replaced on the first
+ * request after a doctor changes. Its ETag is the snapshot version, and
+ * Spring answers a matching {@code If-None-Match} with 304.
+ */
+@Component
+public class DoctorDirectoryRenderer {
+
+    private static final byte[] EMPTY_LIST = {'[', ']'};
+
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Rendering rendering;
+
+    public ResponseEntity<byte[]> allDoctors() {
+        Rendering current = current();
+        return respond(current, current.all());
+    }
+
+    public ResponseEntity<byte[]> doctorsBySpecialty(String specialty) {
+        Rendering current = current();
+        List<DoctorView> doctors = current.directory().bySpecialty(specialty);
+        byte[] body = doctors.isEmpty() ? EMPTY_LIST : current.bySpecialty()
+            .computeIfAbsent(DoctorDirectory.specialtyKey(specialty), key -> render(doctors));
+        return respond(current, body);
+    }
+
+    private Rendering current() {
+        DoctorDirectory directory = doctorService.getDirectory();
+        Rendering current = rendering;
+        if (current == null || current.directory() != directory) {
+            // The instance tag keeps versions from another node or an earlier run from matching.
+            String etag = "\"" + instanceTag + "-" + directory.version() + "\"";
+            current = new Rendering(directory, etag, render(directory.all()), new ConcurrentHashMap<>());
+            rendering = current;
+        }
+        return current;
+    }
+
+    private byte[] render(List<DoctorView> doctors) {
+        try {
+            return objectMapper.writeValueAsBytes(doctors);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> respond(Rendering rendering, byte[] body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(rendering.etag())
+            .cacheControl(CacheControl.noCache())
+            .body(body);
+    }
+
+    private record Rendering(DoctorDirectory directory, String etag, byte[] all,
+                             ConcurrentHashMap<String, byte[]> bySpecialty) {}
+}
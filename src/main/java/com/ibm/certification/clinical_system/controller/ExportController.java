@@ -0,0 +1,94 @@
+package com.ibm.certification.clinical_system.controller;
+
+import com.ibm.certification.clinical_system.service.ExportJob;
+import com.ibm.certification.clinical_system.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/exports")
+@CrossOrigin(origins = "*")
+public class ExportController {
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> startExport(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestParam String dataset,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) Long rowsPerFile) {
+        
+        try {
+            String token = authHeader.replace("Bearer ", "");
+            ExportJob job = exportService.startExport(token, ExportService.Dataset.parse(dataset),
+                ExportService.Format.parse(format), rowsPerFile);
+            return accepted(job);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/{jobId}/resume")
+    public ResponseEntity<Map<String, Object>> resumeExport(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable String jobId) {
+        
+        try {
+            String token = authHeader.replace("Bearer ", "");
+            return accepted(exportService.resumeExport(token, jobId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getExport(
+            @RequestHeader("Authorization") String authHeader,
+            @PathVariable String jobId) {
+        
+        try {
+            String token = authHeader.replace("Bearer ", "");
+            Optional<ExportJob> job = exportService.getExport(token, jobId);
+            if (job.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(toResponse(job.get()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    private ResponseEntity<Map<String, Object>> accepted(ExportJob job) {
+        URI statusUrl = URI.create("/api/exports/" + job.getId());
+        Map<String, Object> response = toResponse(job);
+        response.put("statusUrl", statusUrl.toString());
+        return ResponseEntity.accepted().location(statusUrl).body(response);
+    }
+    
+    private Map<String, Object> toResponse(ExportJob job) {
+        long total = job.getTotalRows();
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("dataset", job.getDataset());
+        response.put("format", job.getFormat());
+        response.put("status", job.getState());
+        response.put("rowsExported", job.getRowsExported());
+        response.put("totalRows", total);
+        response.put("progress", total > 0 ? (double) job.getRowsExported() / total : null);
+        response.put("checkpointId", job.getCheckpointId());
+        response.put("files", job.getFiles());
+        response.put("startedAt", job.getStartedAt());
+        response.put("finishedAt", job.getFinishedAt());
+        response.put("error", job.getError());
+        return response;
+    }
+}
@@ -1,12 +1,25 @@
 package com.ibm.certification.clinical_system.controller;
 
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.PatientView;
 import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.service.PatientImportReport;
+import com.ibm.certification.clinical_system.service.PatientImportService;
 import com.ibm.certification.clinical_system.service.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -18,6 +31,43 @@ public class PatientController {
     @Autowired
     private PatientService patientService;
     
+    @Autowired
+    private PatientImportService patientImportService;
+    
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+    
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<Map<String, Object>> getPatients(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        
+        try {
+            CursorPage<PatientView> page = patientService.getPatients(
+                ContinuationToken.decode(cursor), CursorPage.checkLimit(limit));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("patients", page.items());
+            response.put("count", page.items().size());
+            response.put("nextCursor", page.nextCursor());
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping(produces = NdjsonStreamer.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamPatients(@RequestParam(required = false) String cursor) {
+        try {
+            ContinuationToken after = ContinuationToken.decode(cursor);
+            long afterId = after != null ? after.idOrZero() : 0L;
+            return ndjsonStreamer.<PatientView>stream(sink -> patientService.streamPatients(afterId, sink));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> searchPatient(
             @RequestParam(required = false) String email,
@@ -48,6 +98,11 @@ public class PatientController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/lookup-cache/stats")
+    public ResponseEntity<Map<String, Object>> getLookupCacheStats() {
+        return ResponseEntity.ok(patientService.getLookupCacheStats());
+    }
+    
     @PostMapping
     public ResponseEntity<Patient> createPatient(@RequestBody Patient patient) {
         try {
@@ -62,17 +117,54 @@ public class PatientController {
         }
     }
     
+    @PostMapping(value = "/import", consumes = {NdjsonStreamer.APPLICATION_NDJSON, "text/csv"})
+    public ResponseEntity<Map<String, Object>> importPatients(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestParam(required = false) Integer batchSize) {
+        
+        PatientImportService.Format format = contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+            ? PatientImportService.Format.CSV : PatientImportService.Format.NDJSON;
+        try {
+            PatientImportReport report = patientImportService.importPatients(
+                new InputStreamReader(body, StandardCharsets.UTF_8), format,
+                batchSize != null ? batchSize : patientImportService.defaultBatchSize());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("rows", report.rows());
+            response.put("imported", report.imported());
+            response.put("duplicates", report.duplicates());
+            response.put("failed", report.failed());
+            response.put("errors", report.errors());
+            response.put("errorsTruncated", report.errorsTruncated());
+            response.put("elapsedMs", report.elapsedMillis());
+            response.put("rowsPerSecond", report.rowsPerSecond());
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/search-by-name")
-    public ResponseEntity<Map<String, Object>> searchPatientsByName(@RequestParam String name) {
+    public ResponseEntity<Map<String, Object>> searchPatientsByName(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "50") int limit) {
+        
         if (name == null || name.trim().isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "Name is required"));
         }
         
-        var patients = patientService.searchPatientsByName(name);
-        Map<String, Object> response = new HashMap<>();
-        response.put("patients", patients);
-        response.put("count", patients.size());
-        
-        return ResponseEntity.ok(response);
+        try {
+            List<PatientView> patients = patientService.searchPatientsByName(name, CursorPage.checkLimit(limit));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("patients", patients);
+            response.put("count", patients.size());
+            
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 }
\ No newline at end of file
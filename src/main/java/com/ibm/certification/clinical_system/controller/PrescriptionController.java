@@ -1,14 +1,28 @@
 package com.ibm.certification.clinical_system.controller;
 
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.DoctorPrescriptionView;
+import com.ibm.certification.clinical_system.dto.PatientPrescriptionView;
+import com.ibm.certification.clinical_system.dto.PrescriptionRequest;
+import com.ibm.certification.clinical_system.dto.PrescriptionView;
 import com.ibm.certification.clinical_system.entity.Prescription;
 import com.ibm.certification.clinical_system.service.PrescriptionService;
+import com.ibm.certification.clinical_system.service.QueuedPrescription;
+import com.ibm.certification.clinical_system.service.WriteQueueFullException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/prescriptions")
@@ -18,6 +32,40 @@ public class PrescriptionController {
     @Autowired
     private PrescriptionService prescriptionService;
     
+    @Autowired
+    private NdjsonStreamer ndjsonStreamer;
+    
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<Map<String, Object>> getPrescriptions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        
+        try {
+            CursorPage<PrescriptionView> page = prescriptionService.getPrescriptions(
+                ContinuationToken.decode(cursor), CursorPage.checkLimit(limit));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("prescriptions", page.items());
+            response.put("count", page.items().size());
+            response.put("nextCursor", page.nextCursor());
+            
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping(produces = NdjsonStreamer.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamPrescriptions(@RequestParam(required = false) String cursor) {
+        try {
+            ContinuationToken after = ContinuationToken.decode(cursor);
+            long afterId = after != null ? after.idOrZero() : 0L;
+            return ndjsonStreamer.<PrescriptionView>stream(sink -> prescriptionService.streamPrescriptions(afterId, sink));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PostMapping
     public ResponseEntity<Map<String, Object>> createPrescription(
             @RequestHeader("Authorization") String authHeader,
@@ -25,16 +73,10 @@ public class PrescriptionController {
         
         try {
             String token = authHeader.replace("Bearer ", "");
+            PrescriptionRequest request = PrescriptionRequest.fromMap(prescriptionData);
             
-            Long doctorId = Long.valueOf(prescriptionData.get("doctorId").toString());
-            Long patientId = Long.valueOf(prescriptionData.get("patientId").toString());
-            String medication = prescriptionData.get("medication").toString();
-            String dosage = prescriptionData.get("dosage").toString();
-            String instructions = prescriptionData.get("instructions") != null ? 
-                prescriptionData.get("instructions").toString() : "";
-            
-            Prescription prescription = prescriptionService.savePrescription(
-                token, doctorId, patientId, medication, dosage, instructions);
+            Prescription prescription = prescriptionService.savePrescription(token, request.doctorId(),
+                request.patientId(), request.medication(), request.dosage(), request.instructions());
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -59,23 +101,84 @@ public class PrescriptionController {
         }
     }
     
+    /**
+     * Queues the prescription and answers with a ticket. Tickets live in the
+     * memory of the node that accepted the request, so the status URL is
+     * best-effort: behind a load balancer it answers only on that node, and
+     * it is gone after a restart or once the ticket expires.
+     */
+    @PostMapping(params = "async=true")
+    public ResponseEntity<Map<String, Object>> submitPrescription(
+            @RequestHeader("Authorization") String authHeader,
+            @RequestBody Map<String, Object> prescriptionData) {
+        
+        try {
+            String token = authHeader.replace("Bearer ", "");
+            PrescriptionRequest request = PrescriptionRequest.fromMap(prescriptionData);
+            
+            QueuedPrescription queued = prescriptionService.submitPrescription(token, request.doctorId(),
+                request.patientId(), request.medication(), request.dosage(), request.instructions());
+            URI statusUrl = URI.create("/api/prescriptions/queued/" + queued.ticket());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("ticket", queued.ticket());
+            response.put("status", "QUEUED");
+            response.put("statusUrl", statusUrl.toString());
+            
+            return ResponseEntity.accepted().location(statusUrl).body(response);
+        } catch (WriteQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("success", false, "error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "error", e.getMessage()
+            ));
+        }
+    }
+    
+    @GetMapping("/queued/{ticket}")
+    public ResponseEntity<Map<String, Object>> getQueuedPrescription(@PathVariable String ticket) {
+        Optional<QueuedPrescription> queued = prescriptionService.getQueuedPrescription(ticket);
+        if (queued.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        CompletableFuture<Long> committed = queued.get().committed();
+        Map<String, Object> response = new HashMap<>();
+        response.put("ticket", ticket);
+        if (!committed.isDone()) {
+            response.put("status", "QUEUED");
+        } else {
+            try {
+                response.put("prescriptionId", committed.join());
+                response.put("status", "COMMITTED");
+            } catch (CompletionException e) {
+                response.put("status", "FAILED");
+                response.put("error", e.getCause().getMessage());
+            }
+        }
+        
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/doctor/{doctorId}")
-    public ResponseEntity<Map<String, Object>> getPrescriptionsByDoctor(@PathVariable Long doctorId) {
+    public ResponseEntity<Map<String, Object>> getPrescriptionsByDoctor(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        
         try {
-            List<Prescription> prescriptions = prescriptionService.getPrescriptionsByDoctor(doctorId);
+            CursorPage<DoctorPrescriptionView> page = prescriptionService.getPrescriptionsByDoctor(
+                doctorId, ContinuationToken.decode(cursor), CursorPage.checkLimit(limit));
             
             Map<String, Object> response = new HashMap<>();
             response.put("doctorId", doctorId);
-            response.put("prescriptions", prescriptions.stream().map(prescription -> Map.of(
-                "id", prescription.getId(),
-                "patientName", prescription.getPatient().getName(),
-                "patientEmail", prescription.getPatient().getEmail(),
-                "medication", prescription.getMedication(),
-                "dosage", prescription.getDosage(),
-                "instructions", prescription.getInstructions() != null ? prescription.getInstructions() : "",
-                "createdAt", prescription.getCreatedAt()
-            )).toList());
-            response.put("count", prescriptions.size());
+            response.put("prescriptions", page.items());
+            response.put("count", page.items().size());
+            response.put("nextCursor", page.nextCursor());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -84,22 +187,20 @@ public class PrescriptionController {
     }
     
     @GetMapping("/patient/{patientId}")
-    public ResponseEntity<Map<String, Object>> getPrescriptionsByPatient(@PathVariable Long patientId) {
+    public ResponseEntity<Map<String, Object>> getPrescriptionsByPatient(
+            @PathVariable Long patientId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        
         try {
-            List<Prescription> prescriptions = prescriptionService.getPrescriptionsByPatient(patientId);
+            CursorPage<PatientPrescriptionView> page = prescriptionService.getPrescriptionsByPatient(
+                patientId, ContinuationToken.decode(cursor), CursorPage.checkLimit(limit));
             
             Map<String, Object> response = new HashMap<>();
             response.put("patientId", patientId);
-            response.put("prescriptions", prescriptions.stream().map(prescription -> Map.of(
-                "id", prescription.getId(),
-                "doctorName", prescription.getDoctor().getName(),
-                "doctorSpecialty", prescription.getDoctor().getSpecialty(),
-                "medication", prescription.getMedication(),
-                "dosage", prescription.getDosage(),
-                "instructions", prescription.getInstructions() != null ? prescription.getInstructions() : "",
-                "createdAt", prescription.getCreatedAt()
-            )).toList());
-            response.put("count", prescriptions.size());
+            response.put("prescriptions", page.items());
+            response.put("count", page.items().size());
+            response.put("nextCursor", page.nextCursor());
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -0,0 +1,16 @@
+package com.ibm.certification.clinical_system.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public record AppointmentRequest(Long doctorId, Long patientId, LocalDateTime appointmentTime, String notes) {
+
+    public static AppointmentRequest fromMap(Map<String, Object> appointmentData) {
+        Long doctorId = Long.valueOf(appointmentData.get("doctorId").toString());
+        Long patientId = Long.valueOf(appointmentData.get("patientId").toString());
+        String appointmentTimeStr = appointmentData.get("appointmentTime").toString();
+        String notes = appointmentData.get("notes") != null ? appointmentData.get("notes").toString() : "";
+
+        return new AppointmentRequest(doctorId, patientId, LocalDateTime.parse(appointmentTimeStr), notes);
+    }
+}
@@ -0,0 +1,9 @@
+package com.ibm.certification.clinical_system.dto;
+
+import com.ibm.certification.clinical_system.entity.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+public record AppointmentView(Long id, Long doctorId, String doctorName, Long patientId, String patientName,
+                              LocalDateTime appointmentTime, AppointmentStatus status, String notes) {
+}
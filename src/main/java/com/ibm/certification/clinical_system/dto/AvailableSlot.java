@@ -0,0 +1,6 @@
+package com.ibm.certification.clinical_system.dto;
+
+import java.time.LocalDateTime;
+
+public record AvailableSlot(Long doctorId, String doctorName, String specialty, LocalDateTime startTime) {
+}
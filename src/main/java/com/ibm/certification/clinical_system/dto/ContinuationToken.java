@@ -0,0 +1,42 @@
+package com.ibm.certification.clinical_system.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public record ContinuationToken(LocalDateTime time, Long id) {
+
+    public static ContinuationToken of(Long id) {
+        return new ContinuationToken(null, id);
+    }
+
+    public static ContinuationToken of(LocalDateTime time, Long id) {
+        return new ContinuationToken(time, id);
+    }
+
+    public static ContinuationToken decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            if (separator < 0) {
+                return of(Long.valueOf(value));
+            }
+            return of(LocalDateTime.parse(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String value = time != null ? time + "|" + id : id.toString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long idOrZero() {
+        return id != null ? id : 0L;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ibm.certification.clinical_system.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public static final int DEFAULT_LIMIT = 50;
+
+    public static final int MAX_LIMIT = 500;
+
+    public static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    /**
+     * Builds a page from a query that fetched up to {@code limit + 1} rows; the
+     * extra row only signals that another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, int limit, Function<T, ContinuationToken> keyOf) {
+        if (fetched.size() <= limit) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new CursorPage<>(List.copyOf(items), keyOf.apply(items.get(limit - 1)).encode());
+    }
+}
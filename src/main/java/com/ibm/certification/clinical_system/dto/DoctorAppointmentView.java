@@ -0,0 +1,9 @@
+package com.ibm.certification.clinical_system.dto;
+
+import com.ibm.certification.clinical_system.entity.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+public record DoctorAppointmentView(Long id, String patientName, String patientEmail,
+                                    LocalDateTime appointmentTime, AppointmentStatus status, String notes) {
+}
@@ -0,0 +1,7 @@
+package com.ibm.certification.clinical_system.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record DoctorAvailability(Long doctorId, String doctorName, LocalDate date, List<String> availableTimeSlots) {
+}
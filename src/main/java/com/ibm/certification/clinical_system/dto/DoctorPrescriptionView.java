@@ -0,0 +1,7 @@
+package com.ibm.certification.clinical_system.dto;
+
+import java.time.LocalDateTime;
+
+public record DoctorPrescriptionView(Long id, String patientName, String patientEmail, String medication,
+                                     String dosage, String instructions, LocalDateTime createdAt) {
+}
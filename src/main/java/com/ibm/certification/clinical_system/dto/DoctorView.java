@@ -0,0 +1,14 @@
+package com.ibm.certification.clinical_system.dto;
+
+import com.ibm.certification.clinical_system.entity.Doctor;
+
+import java.time.LocalDateTime;
+
+public record DoctorView(Long id, String name, String email, String specialty, String phone,
+                         String availableTimes, LocalDateTime createdAt) {
+
+    public static DoctorView of(Doctor doctor) {
+        return new DoctorView(doctor.getId(), doctor.getName(), doctor.getEmail(), doctor.getSpecialty(),
+            doctor.getPhone(), doctor.getAvailableTimes(), doctor.getCreatedAt());
+    }
+}
@@ -0,0 +1,9 @@
+package com.ibm.certification.clinical_system.dto;
+
+import com.ibm.certification.clinical_system.entity.AppointmentStatus;
+
+import java.time.LocalDateTime;
+
+public record PatientAppointmentView(Long id, String doctorName, String doctorSpecialty,
+                                     LocalDateTime appointmentTime, AppointmentStatus status, String notes) {
+}
@@ -0,0 +1,4 @@
+package com.ibm.certification.clinical_system.dto;
+
+public record PatientImportRow(String name, String email, String phone, String address) {
+}
@@ -0,0 +1,7 @@
+package com.ibm.certification.clinical_system.dto;
+
+import java.time.LocalDateTime;
+
+public record PatientPrescriptionView(Long id, String doctorName, String doctorSpecialty, String medication,
+                                      String dosage, String instructions, LocalDateTime createdAt) {
+}
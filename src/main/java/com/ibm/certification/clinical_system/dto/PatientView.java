@@ -0,0 +1,13 @@
+package com.ibm.certification.clinical_system.dto;
+
+import com.ibm.certification.clinical_system.entity.Patient;
+
+import java.time.LocalDateTime;
+
+public record PatientView(Long id, String name, String email, String phone, String address, LocalDateTime createdAt) {
+
+    public static PatientView of(Patient patient) {
+        return new PatientView(patient.getId(), patient.getName(), patient.getEmail(), patient.getPhone(),
+            patient.getAddress() != null ? patient.getAddress() : "", patient.getCreatedAt());
+    }
+}
@@ -0,0 +1,17 @@
+package com.ibm.certification.clinical_system.dto;
+
+import java.util.Map;
+
+public record PrescriptionRequest(Long doctorId, Long patientId, String medication, String dosage, String instructions) {
+
+    public static PrescriptionRequest fromMap(Map<String, Object> prescriptionData) {
+        Long doctorId = Long.valueOf(prescriptionData.get("doctorId").toString());
+        Long patientId = Long.valueOf(prescriptionData.get("patientId").toString());
+        String medication = prescriptionData.get("medication").toString();
+        String dosage = prescriptionData.get("dosage").toString();
+        String instructions = prescriptionData.get("instructions") != null ?
+            prescriptionData.get("instructions").toString() : "";
+
+        return new PrescriptionRequest(doctorId, patientId, medication, dosage, instructions);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ibm.certification.clinical_system.dto;
+
+import java.time.LocalDateTime;
+
+public record PrescriptionView(Long id, Long doctorId, String doctorName, Long patientId, String patientName,
+                               String medication, String dosage, String instructions, LocalDateTime createdAt) {
+}
@@ -0,0 +1,11 @@
+package com.ibm.certification.clinical_system.entity;
+
+public enum ChangeType {
+    APPOINTMENT_SAVED,
+    APPOINTMENT_DELETED,
+    APPOINTMENT_ARCHIVED,
+    PRESCRIPTION_SAVED,
+    PRESCRIPTION_DELETED,
+    PATIENT_SAVED,
+    DOCTOR_SAVED
+}
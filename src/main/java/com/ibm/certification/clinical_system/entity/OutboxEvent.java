@@ -0,0 +1,82 @@
+package com.ibm.certification.clinical_system.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Row of the change outbox. Mapped so that the table is managed together with
+ * the rest of the schema; rows are written and tailed by
+ * {@code ChangeFeed} over plain JDBC.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_created_at", columnList = "created_at")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private ChangeType type;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Column(name = "patient_id")
+    private Long patientId;
+
+    @Column(name = "slot_time")
+    private LocalDateTime slotTime;
+
+    @Column(name = "occupies_slot", nullable = false)
+    private boolean occupiesSlot;
+
+    @Column(nullable = false, length = 36)
+    private String origin;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxEvent() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getDoctorId() {
+        return doctorId;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public LocalDateTime getSlotTime() {
+        return slotTime;
+    }
+
+    public boolean isOccupiesSlot() {
+        return occupiesSlot;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,35 +1,85 @@
 package com.ibm.certification.clinical_system.repository;
 
+import com.ibm.certification.clinical_system.dto.AppointmentView;
+import com.ibm.certification.clinical_system.dto.DoctorAppointmentView;
+import com.ibm.certification.clinical_system.dto.PatientAppointmentView;
 import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.AppointmentStatus;
 import com.ibm.certification.clinical_system.entity.Doctor;
 import com.ibm.certification.clinical_system.entity.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+    String APPOINTMENT_VIEW = "SELECT new com.ibm.certification.clinical_system.dto.AppointmentView(" +
+           "a.id, d.id, d.name, p.id, p.name, a.appointmentTime, a.status, COALESCE(a.notes, '')) " +
+           "FROM Appointment a JOIN a.doctor d JOIN a.patient p ";
+    
+    String PATIENT_APPOINTMENT_VIEW = "SELECT new com.ibm.certification.clinical_system.dto.PatientAppointmentView(" +
+           "a.id, d.name, d.specialty, a.appointmentTime, a.status, COALESCE(a.notes, '')) " +
+           "FROM Appointment a JOIN a.patient p JOIN a.doctor d ";
+    
     List<Appointment> findByDoctor(Doctor doctor);
     
     List<Appointment> findByPatient(Patient patient);
     
-    @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId " +
-           "AND DATE(a.appointmentTime) = :date ORDER BY a.appointmentTime")
-    List<Appointment> findByDoctorAndDate(@Param("doctorId") Long doctorId, @Param("date") LocalDate date);
+    @Query(APPOINTMENT_VIEW + "WHERE a.id > :afterId ORDER BY a.id")
+    List<AppointmentView> findPageAfter(@Param("afterId") long afterId, Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(APPOINTMENT_VIEW + "WHERE a.id > :afterId ORDER BY a.id")
+    Stream<AppointmentView> streamAfter(@Param("afterId") long afterId);
     
-    @Query("SELECT a FROM Appointment a JOIN a.patient p " +
-           "WHERE p.email = :email OR p.phone = :phone " +
-           "ORDER BY a.appointmentTime DESC")
-    List<Appointment> findByPatientEmailOrPhone(@Param("email") String email, @Param("phone") String phone);
+    @Query(PATIENT_APPOINTMENT_VIEW + "WHERE p.id IN :patientIds " +
+           "ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<PatientAppointmentView> findByPatientIds(@Param("patientIds") Collection<Long> patientIds, Limit limit);
+    
+    @Query(PATIENT_APPOINTMENT_VIEW + "WHERE p.id IN :patientIds " +
+           "AND (a.appointmentTime < :beforeTime OR (a.appointmentTime = :beforeTime AND a.id < :beforeId)) " +
+           "ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<PatientAppointmentView> findByPatientIdsBefore(@Param("patientIds") Collection<Long> patientIds,
+                                                        @Param("beforeTime") LocalDateTime beforeTime,
+                                                        @Param("beforeId") Long beforeId,
+                                                        Limit limit);
     
     @Query("SELECT a FROM Appointment a WHERE a.doctor.id = :doctorId " +
-           "AND a.appointmentTime BETWEEN :startTime AND :endTime")
+           "AND a.appointmentTime >= :startTime AND a.appointmentTime < :endTime " +
+           "ORDER BY a.appointmentTime")
     List<Appointment> findByDoctorAndTimeBetween(@Param("doctorId") Long doctorId, 
                                                @Param("startTime") LocalDateTime startTime, 
                                                @Param("endTime") LocalDateTime endTime);
+    
+    @Query("SELECT new com.ibm.certification.clinical_system.dto.DoctorAppointmentView(" +
+           "a.id, p.name, p.email, a.appointmentTime, a.status, COALESCE(a.notes, '')) " +
+           "FROM Appointment a JOIN a.patient p WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentTime >= :startTime AND a.appointmentTime < :endTime " +
+           "ORDER BY a.appointmentTime")
+    List<DoctorAppointmentView> findScheduleByDoctorAndTimeBetween(@Param("doctorId") Long doctorId,
+                                                                   @Param("startTime") LocalDateTime startTime,
+                                                                   @Param("endTime") LocalDateTime endTime);
+    
+    @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.doctor.id = :doctorId " +
+           "AND a.appointmentTime > :after AND a.appointmentTime < :before " +
+           "AND a.status <> :excludedStatus AND a.id <> :excludedId")
+    boolean existsBookingBetween(@Param("doctorId") Long doctorId,
+                                 @Param("after") LocalDateTime after,
+                                 @Param("before") LocalDateTime before,
+                                 @Param("excludedStatus") AppointmentStatus excludedStatus,
+                                 @Param("excludedId") Long excludedId);
+    
+    @Query("SELECT a.id, a.doctor.id, a.appointmentTime FROM Appointment a " +
+           "WHERE a.status <> :excludedStatus ORDER BY a.doctor.id, a.appointmentTime")
+    List<Object[]> findSlotOccupancy(@Param("excludedStatus") AppointmentStatus excludedStatus);
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.ibm.certification.clinical_system.repository;
+
+import com.ibm.certification.clinical_system.dto.PatientAppointmentView;
+import com.ibm.certification.clinical_system.entity.ArchivedAppointment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+    String PATIENT_APPOINTMENT_VIEW = "SELECT new com.ibm.certification.clinical_system.dto.PatientAppointmentView(" +
+           "a.id, d.name, d.specialty, a.appointmentTime, a.status, COALESCE(a.notes, '')) " +
+           "FROM ArchivedAppointment a JOIN a.patient p JOIN a.doctor d ";
+    
+    @Query(PATIENT_APPOINTMENT_VIEW + "WHERE p.id IN :patientIds " +
+           "ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<PatientAppointmentView> findByPatientIds(@Param("patientIds") Collection<Long> patientIds, Limit limit);
+    
+    @Query(PATIENT_APPOINTMENT_VIEW + "WHERE p.id IN :patientIds " +
+           "AND (a.appointmentTime < :beforeTime OR (a.appointmentTime = :beforeTime AND a.id < :beforeId)) " +
+           "ORDER BY a.appointmentTime DESC, a.id DESC")
+    List<PatientAppointmentView> findByPatientIdsBefore(@Param("patientIds") Collection<Long> patientIds,
+                                                        @Param("beforeTime") LocalDateTime beforeTime,
+                                                        @Param("beforeId") Long beforeId,
+                                                        Limit limit);
+}
@@ -1,17 +1,26 @@
 package com.ibm.certification.clinical_system.repository;
 
 import com.ibm.certification.clinical_system.entity.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+    String EMAIL_LOOKUP_REGION = "email-lookups";
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EMAIL_LOOKUP_REGION)
+    })
     Optional<Doctor> findByEmail(String email);
     
     List<Doctor> findBySpecialty(String specialty);
@@ -19,11 +28,6 @@ public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     @Query("SELECT d FROM Doctor d WHERE d.availableTimes IS NOT NULL AND d.availableTimes != ''")
     List<Doctor> findAvailableDoctors();
     
-    @Query("SELECT d FROM Doctor d LEFT JOIN d.appointments a " +
-           "WHERE d.id = :doctorId AND " +
-           "(a.appointmentTime IS NULL OR " +
-           "a.appointmentTime NOT BETWEEN :startTime AND :endTime)")
-    List<Doctor> findDoctorAvailableAtTime(@Param("doctorId") Long doctorId, 
-                                          @Param("startTime") LocalDateTime startTime, 
-                                          @Param("endTime") LocalDateTime endTime);
+    @Query(value = "SELECT id FROM doctors WHERE id IN :ids ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,16 +1,31 @@
 package com.ibm.certification.clinical_system.repository;
 
+import com.ibm.certification.clinical_system.dto.PatientView;
 import com.ibm.certification.clinical_system.entity.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
+    String EMAIL_LOOKUP_REGION = "email-lookups";
+    
+    String PATIENT_VIEW = "SELECT new com.ibm.certification.clinical_system.dto.PatientView(" +
+           "p.id, p.name, p.email, p.phone, COALESCE(p.address, ''), p.createdAt) FROM Patient p ";
+    
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EMAIL_LOOKUP_REGION)
+    })
     Optional<Patient> findByEmail(String email);
     
     Optional<Patient> findByPhone(String phone);
@@ -18,6 +33,22 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     @Query("SELECT p FROM Patient p WHERE p.email = :email OR p.phone = :phone")
     Optional<Patient> findByEmailOrPhone(@Param("email") String email, @Param("phone") String phone);
     
-    @Query("SELECT p FROM Patient p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    List<Patient> findByNameContainingIgnoreCase(@Param("name") String name);
+    @Query("SELECT p.id FROM Patient p WHERE p.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+    
+    @Query("SELECT p.id FROM Patient p WHERE p.phone = :phone ORDER BY p.id")
+    List<Long> findIdsByPhone(@Param("phone") String phone);
+    
+    @Query("SELECT COUNT(p.id) FROM Patient p WHERE p.email = :email")
+    long countByEmail(@Param("email") String email);
+    
+    @Query("SELECT COUNT(p.id) FROM Patient p WHERE p.phone = :phone")
+    long countByPhone(@Param("phone") String phone);
+    
+    @Query(PATIENT_VIEW + "WHERE p.id > :afterId ORDER BY p.id")
+    List<PatientView> findPageAfter(@Param("afterId") long afterId, Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(PATIENT_VIEW + "WHERE p.id > :afterId ORDER BY p.id")
+    Stream<PatientView> streamAfter(@Param("afterId") long afterId);
 }
\ No newline at end of file
@@ -1,14 +1,45 @@
 package com.ibm.certification.clinical_system.repository;
 
+import com.ibm.certification.clinical_system.dto.DoctorPrescriptionView;
+import com.ibm.certification.clinical_system.dto.PatientPrescriptionView;
+import com.ibm.certification.clinical_system.dto.PrescriptionView;
 import com.ibm.certification.clinical_system.entity.Prescription;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PrescriptionRepository extends JpaRepository<Prescription, Long> {
-    List<Prescription> findByDoctorId(Long doctorId);
+    String PRESCRIPTION_VIEW = "SELECT new com.ibm.certification.clinical_system.dto.PrescriptionView(" +
+           "pr.id, d.id, d.name, p.id, p.name, pr.medication, pr.dosage, COALESCE(pr.instructions, ''), pr.createdAt) " +
+           "FROM Prescription pr JOIN pr.doctor d JOIN pr.patient p ";
     
-    List<Prescription> findByPatientId(Long patientId);
+    @Query(PRESCRIPTION_VIEW + "WHERE pr.id > :afterId ORDER BY pr.id")
+    List<PrescriptionView> findPageAfter(@Param("afterId") long afterId, Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(PRESCRIPTION_VIEW + "WHERE pr.id > :afterId ORDER BY pr.id")
+    Stream<PrescriptionView> streamAfter(@Param("afterId") long afterId);
+    
+    @Query("SELECT new com.ibm.certification.clinical_system.dto.DoctorPrescriptionView(" +
+           "pr.id, p.name, p.email, pr.medication, pr.dosage, COALESCE(pr.instructions, ''), pr.createdAt) " +
+           "FROM Prescription pr JOIN pr.patient p WHERE pr.doctor.id = :doctorId AND pr.id > :afterId " +
+           "ORDER BY pr.id")
+    List<DoctorPrescriptionView> findViewsByDoctorId(@Param("doctorId") Long doctorId, @Param("afterId") long afterId,
+                                                     Limit limit);
+    
+    @Query("SELECT new com.ibm.certification.clinical_system.dto.PatientPrescriptionView(" +
+           "pr.id, d.name, d.specialty, pr.medication, pr.dosage, COALESCE(pr.instructions, ''), pr.createdAt) " +
+           "FROM Prescription pr JOIN pr.doctor d WHERE pr.patient.id = :patientId AND pr.id > :afterId " +
+           "ORDER BY pr.id")
+    List<PatientPrescriptionView> findViewsByPatientId(@Param("patientId") Long patientId, @Param("afterId") long afterId,
+                                                       Limit limit);
 }
\ No newline at end of file
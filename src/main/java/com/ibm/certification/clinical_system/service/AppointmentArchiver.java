@@ -0,0 +1,131 @@
+package com.ibm.certification.clinical_system.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves appointments more than {@code clinic.archive.horizon-days} in the past
+ * from {@code appointments} to {@code appointments_archive}, so that the hot
+ * table and its indexes only hold the part of the schedule that is still
+ * booked against. Each batch of {@code batch-size} rows is copied and deleted
+ * in one transaction under row locks, together with an outbox event per row
+ * that drops it from every node's slot index.
+ */
+@Component
+public class AppointmentArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentArchiver.class);
+
+    private static final String SELECT_SQL = "SELECT id, doctor_id, patient_id, appointment_time FROM appointments "
+        + "WHERE appointment_time < :cutoff ORDER BY appointment_time, id LIMIT :limit FOR UPDATE";
+
+    private static final String COPY_SQL = "INSERT INTO appointments_archive "
+        + "(id, doctor_id, patient_id, appointment_time, status, notes, created_at, archived_at) "
+        + "SELECT id, doctor_id, patient_id, appointment_time, status, notes, created_at, :archivedAt "
+        + "FROM appointments WHERE id IN (:ids)";
+
+    private static final String DELETE_SQL = "DELETE FROM appointments WHERE id IN (:ids)";
+
+    private static final RowMapper<ChangeEvent> ROW_MAPPER = (rs, rowNum) -> ChangeEvent.appointmentArchived(
+        rs.getLong("id"), rs.getLong("doctor_id"), rs.getLong("patient_id"),
+        rs.getTimestamp("appointment_time").toLocalDateTime());
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    // Scheduled beans are always created at startup; this keeps them from loading the index early
+    @Autowired
+    @Lazy
+    private AppointmentSlotIndex slotIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${clinic.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${clinic.archive.horizon-days:365}")
+    private int horizonDays;
+
+    @Value("${clinic.archive.batch-size:1000}")
+    private int batchSize;
+
+    private Counter archived;
+
+    @PostConstruct
+    void init() {
+        if (horizonDays < 1) {
+            throw new IllegalStateException("clinic.archive.horizon-days must be at least 1");
+        }
+        archived = Counter.builder("clinic.appointments.archived").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.archive.interval-ms:3600000}",
+               initialDelayString = "${clinic.archive.interval-ms:3600000}")
+    public void archive() {
+        if (enabled) {
+            archiveBefore(LocalDateTime.now().minusDays(horizonDays));
+        }
+    }
+
+    /**
+     * Archives every appointment scheduled before {@code cutoff}, one batch at
+     * a time, and returns how many were moved.
+     */
+    public synchronized int archiveBefore(LocalDateTime cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveBatch(cutoff);
+            total += moved;
+        } while (moved == batchSize && !Thread.currentThread().isInterrupted());
+        if (total > 0) {
+            log.info("Archived {} appointments scheduled before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<ChangeEvent> batch = transactionTemplate.execute(status -> {
+            List<ChangeEvent> events = jdbcTemplate.query(SELECT_SQL,
+                Map.of("cutoff", Timestamp.valueOf(cutoff), "limit", batchSize), ROW_MAPPER);
+            if (events.isEmpty()) {
+                return events;
+            }
+            List<Long> ids = events.stream().map(ChangeEvent::entityId).toList();
+            jdbcTemplate.update(COPY_SQL, Map.of("ids", ids, "archivedAt", Timestamp.valueOf(LocalDateTime.now())));
+            int deleted = jdbcTemplate.update(DELETE_SQL, Map.of("ids", ids));
+            if (deleted != ids.size()) {
+                throw new IllegalStateException("Expected to archive " + ids.size() + " appointments but deleted "
+                    + deleted);
+            }
+            changeFeed.publish(events);
+            return events;
+        });
+        batch.forEach(event -> slotIndex.remove(event.doctorId(), event.entityId()));
+        archived.increment(batch.size());
+        return batch.size();
+    }
+}
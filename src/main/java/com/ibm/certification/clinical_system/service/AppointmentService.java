@@ -1,33 +1,99 @@
 package com.ibm.certification.clinical_system.service;
 
+import com.ibm.certification.clinical_system.dto.AppointmentRequest;
+import com.ibm.certification.clinical_system.dto.AppointmentView;
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.DoctorAppointmentView;
+import com.ibm.certification.clinical_system.dto.PatientAppointmentView;
 import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.AppointmentStatus;
 import com.ibm.certification.clinical_system.entity.Doctor;
 import com.ibm.certification.clinical_system.entity.Patient;
 import com.ibm.certification.clinical_system.repository.AppointmentRepository;
+import com.ibm.certification.clinical_system.repository.ArchivedAppointmentRepository;
+import com.ibm.certification.clinical_system.repository.DoctorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AppointmentService {
     
+    public static final int MAX_BATCH_SIZE = 500;
+    
+    public static final String BOOKINGS_METRIC = "clinic.bookings";
+    
+    private static final Comparator<PatientAppointmentView> NEWEST_FIRST = Comparator
+        .comparing(PatientAppointmentView::appointmentTime)
+        .thenComparing(PatientAppointmentView::id)
+        .reversed();
+    
     @Autowired
     private AppointmentRepository appointmentRepository;
     
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    
+    @Autowired
+    private DoctorRepository doctorRepository;
+    
     @Autowired
     private DoctorService doctorService;
     
     @Autowired
     private PatientService patientService;
     
-    public List<Appointment> getAllAppointments() {
-        return appointmentRepository.findAll();
+    @Autowired
+    private AppointmentSlotIndex slotIndex;
+    
+    @Autowired
+    private BookingLocks bookingLocks;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentView> getAppointments(ContinuationToken after, int limit) {
+        long afterId = after != null ? after.idOrZero() : 0L;
+        List<AppointmentView> fetched = appointmentRepository.findPageAfter(afterId, Limit.of(limit + 1));
+        return CursorPage.of(fetched, limit, view -> ContinuationToken.of(view.id()));
     }
     
+    @Transactional(readOnly = true)
+    public void streamAppointments(long afterId, Consumer<? super AppointmentView> sink) {
+        try (Stream<AppointmentView> appointments = appointmentRepository.streamAfter(afterId)) {
+            appointments.forEach(sink);
+        }
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Appointment> getAppointmentById(Long id) {
         return appointmentRepository.findById(id);
     }
@@ -37,10 +103,6 @@ public class AppointmentService {
         Optional<Patient> patientOpt = patientService.getPatientById(patientId);
         
         if (doctorOpt.isPresent() && patientOpt.isPresent()) {
-            if (!doctorService.isDoctorAvailableAtTime(doctorId, appointmentTime)) {
-                throw new RuntimeException("Doctor is not available at the requested time");
-            }
-            
             Appointment appointment = new Appointment(
                 doctorOpt.get(), 
                 patientOpt.get(), 
@@ -48,12 +110,136 @@ public class AppointmentService {
                 notes
             );
             
-            return appointmentRepository.save(appointment);
+            return bookingLocks.withSlotLock(doctorId, appointmentTime, () -> {
+                if (!slotIndex.isAvailable(doctorId, appointmentTime)) {
+                    countBookings("conflict", 1);
+                    throw new RuntimeException("Doctor is not available at the requested time");
+                }
+                
+                Appointment saved = transactionTemplate.execute(status -> {
+                    if (findTakenSlot(List.of(appointment)) >= 0) {
+                        countBookings("conflict", 1);
+                        throw new RuntimeException("Doctor is not available at the requested time");
+                    }
+                    return saveAndPublish(appointment);
+                });
+                slotIndex.place(saved);
+                countBookings("booked", 1);
+                return saved;
+            });
         } else {
+            countBookings("rejected", 1);
             throw new RuntimeException("Doctor or Patient not found");
         }
     }
     
+    public List<Appointment> bookAppointments(List<AppointmentRequest> requests) {
+        if (requests.isEmpty()) {
+            throw new RuntimeException("At least one appointment is required");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            countBookings("rejected", requests.size());
+            throw new RuntimeException("A batch can contain at most " + MAX_BATCH_SIZE + " appointments");
+        }
+        
+        Map<Long, Doctor> doctors = doctorService.getDoctorsByIds(
+                requests.stream().map(AppointmentRequest::doctorId).collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(Doctor::getId, Function.identity()));
+        Map<Long, Patient> patients = patientService.getPatientsByIds(
+                requests.stream().map(AppointmentRequest::patientId).collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(Patient::getId, Function.identity()));
+        
+        List<Appointment> appointments = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            AppointmentRequest request = requests.get(i);
+            Doctor doctor = doctors.get(request.doctorId());
+            Patient patient = patients.get(request.patientId());
+            if (doctor == null || patient == null) {
+                countBookings("rejected", requests.size());
+                throw new RuntimeException("Appointment " + i + ": Doctor or Patient not found");
+            }
+            appointments.add(new Appointment(doctor, patient, request.appointmentTime(), request.notes()));
+        }
+        try {
+            rejectOverlapsWithinBatch(appointments);
+        } catch (RuntimeException e) {
+            countBookings("conflict", requests.size());
+            throw e;
+        }
+        
+        return bookingLocks.withSlotLocks(appointments, () -> {
+            for (int i = 0; i < appointments.size(); i++) {
+                Appointment appointment = appointments.get(i);
+                if (!slotIndex.isAvailable(appointment.getDoctor().getId(), appointment.getAppointmentTime())) {
+                    countBookings("conflict", appointments.size());
+                    throw new RuntimeException("Appointment " + i + ": Doctor is not available at the requested time");
+                }
+            }
+            
+            List<Appointment> saved = transactionTemplate.execute(status -> {
+                int taken = findTakenSlot(appointments);
+                if (taken >= 0) {
+                    countBookings("conflict", appointments.size());
+                    throw new RuntimeException("Appointment " + taken + ": Doctor is not available at the requested time");
+                }
+                List<Appointment> inserted = appointmentRepository.saveAll(appointments);
+                changeFeed.publish(inserted.stream().map(ChangeEvent::appointmentSaved).toList());
+                return inserted;
+            });
+            saved.forEach(slotIndex::place);
+            countBookings("booked", saved.size());
+            return saved;
+        });
+    }
+    
+    private void countBookings(String outcome, int count) {
+        meterRegistry.counter(BOOKINGS_METRIC, "outcome", outcome).increment(count);
+    }
+    
+    /**
+     * Locks the doctors' rows and checks the slots against the database. The
+     * slot index hears of other nodes' bookings only through the change feed,
+     * so this is what keeps two nodes from booking the same slot; bookings for
+     * a doctor queue on the row lock until the one ahead commits. Returns the
+     * index of the first appointment whose slot is taken, or -1.
+     */
+    private int findTakenSlot(List<Appointment> appointments) {
+        doctorRepository.lockByIds(appointments.stream()
+            .map(appointment -> appointment.getDoctor().getId())
+            .collect(Collectors.toCollection(TreeSet::new)));
+        for (int i = 0; i < appointments.size(); i++) {
+            Appointment appointment = appointments.get(i);
+            LocalDateTime time = appointment.getAppointmentTime();
+            if (appointmentRepository.existsBookingBetween(appointment.getDoctor().getId(),
+                    time.minusMinutes(AppointmentSlotIndex.APPOINTMENT_MINUTES),
+                    time.plusMinutes(AppointmentSlotIndex.APPOINTMENT_MINUTES),
+                    AppointmentStatus.CANCELLED, appointment.getId() != null ? appointment.getId() : 0L)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private void rejectOverlapsWithinBatch(List<Appointment> appointments) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < appointments.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer, Long>comparing(i -> appointments.get(i).getDoctor().getId())
+            .thenComparing(i -> appointments.get(i).getAppointmentTime()));
+        
+        for (int k = 1; k < order.size(); k++) {
+            Appointment previous = appointments.get(order.get(k - 1));
+            Appointment current = appointments.get(order.get(k));
+            if (previous.getDoctor().getId().equals(current.getDoctor().getId())
+                    && Duration.between(previous.getAppointmentTime(), current.getAppointmentTime()).toMinutes()
+                        < AppointmentSlotIndex.APPOINTMENT_MINUTES) {
+                throw new RuntimeException("Appointments " + order.get(k - 1) + " and " + order.get(k) + " overlap");
+            }
+        }
+    }
+    
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsByDoctor(Long doctorId) {
         Optional<Doctor> doctorOpt = doctorService.getDoctorById(doctorId);
         if (doctorOpt.isPresent()) {
@@ -62,19 +248,92 @@ public class AppointmentService {
         throw new RuntimeException("Doctor not found");
     }
     
-    public List<Appointment> getAppointmentsByDoctorAndDate(Long doctorId, LocalDate date) {
-        return appointmentRepository.findByDoctorAndDate(doctorId, date);
+    @Transactional(readOnly = true)
+    public List<DoctorAppointmentView> getAppointmentsByDoctorAndDate(Long doctorId, LocalDate date) {
+        return appointmentRepository.findScheduleByDoctorAndTimeBetween(
+            doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<DoctorAppointmentView> getAppointmentsByDoctorForWeek(Long doctorId, LocalDate date) {
+        LocalDate weekStart = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return appointmentRepository.findScheduleByDoctorAndTimeBetween(
+            doctorId, weekStart.atStartOfDay(), weekStart.plusWeeks(1).atStartOfDay());
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<PatientAppointmentView> getAppointmentsByPatientCredentials(String email, String phone,
+                                                                                  ContinuationToken after, int limit) {
+        return getAppointmentsByPatientCredentials(email, phone, after, limit, false);
     }
     
-    public List<Appointment> getAppointmentsByPatientCredentials(String email, String phone) {
-        return appointmentRepository.findByPatientEmailOrPhone(email, phone);
+    /**
+     * Patient history, newest first. With {@code includeArchived} the page is
+     * merged from the hot and the archive table; ids are unique across both,
+     * so the same time/id cursor pages through the combined history.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PatientAppointmentView> getAppointmentsByPatientCredentials(String email, String phone,
+                                                                                  ContinuationToken after, int limit,
+                                                                                  boolean includeArchived) {
+        Set<Long> patientIds = patientService.getPatientIdsByEmailOrPhone(email, phone);
+        if (patientIds.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+        boolean first = after == null || after.time() == null;
+        List<PatientAppointmentView> fetched = first
+            ? appointmentRepository.findByPatientIds(patientIds, Limit.of(limit + 1))
+            : appointmentRepository.findByPatientIdsBefore(patientIds, after.time(), after.id(), Limit.of(limit + 1));
+        if (includeArchived) {
+            List<PatientAppointmentView> archived = first
+                ? archivedAppointmentRepository.findByPatientIds(patientIds, Limit.of(limit + 1))
+                : archivedAppointmentRepository.findByPatientIdsBefore(patientIds, after.time(), after.id(),
+                    Limit.of(limit + 1));
+            fetched = Stream.concat(fetched.stream(), archived.stream())
+                .sorted(NEWEST_FIRST)
+                .limit(limit + 1)
+                .toList();
+        }
+        return CursorPage.of(fetched, limit, view -> ContinuationToken.of(view.appointmentTime(), view.id()));
     }
     
     public Appointment updateAppointment(Appointment appointment) {
-        return appointmentRepository.save(appointment);
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDateTime appointmentTime = appointment.getAppointmentTime();
+        return bookingLocks.withSlotLock(doctorId, appointmentTime, () -> {
+            // A cancelled appointment may have lost its slot to another booking in the meantime
+            if (AppointmentSlotIndex.occupiesSlot(appointment.getStatus())
+                    && !slotIndex.isAvailable(doctorId, appointmentTime, appointment.getId())) {
+                throw new RuntimeException("Doctor is not available at the requested time");
+            }
+            
+            Appointment saved = transactionTemplate.execute(status -> {
+                if (AppointmentSlotIndex.occupiesSlot(appointment.getStatus())
+                        && findTakenSlot(List.of(appointment)) >= 0) {
+                    throw new RuntimeException("Doctor is not available at the requested time");
+                }
+                return saveAndPublish(appointment);
+            });
+            slotIndex.place(saved);
+            return saved;
+        });
     }
     
     public void deleteAppointment(Long id) {
-        appointmentRepository.deleteById(id);
+        Optional<Appointment> appointmentOpt = transactionTemplate.execute(status -> {
+            Optional<Appointment> existing = appointmentRepository.findById(id);
+            appointmentRepository.deleteById(id);
+            existing.ifPresent(appointment -> changeFeed.publish(ChangeEvent.appointmentDeleted(appointment)));
+            return existing;
+        });
+        appointmentOpt.ifPresent(appointment -> slotIndex.remove(appointment.getDoctor().getId(), id));
+    }
+    
+    private Appointment saveAndPublish(Appointment appointment) {
+        return transactionTemplate.execute(status -> {
+            Appointment saved = appointmentRepository.save(appointment);
+            changeFeed.publish(ChangeEvent.appointmentSaved(saved));
+            return saved;
+        });
     }
 }
\ No newline at end of file
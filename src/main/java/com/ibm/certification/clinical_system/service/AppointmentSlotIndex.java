@@ -0,0 +1,207 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.AppointmentStatus;
+import com.ibm.certification.clinical_system.entity.ChangeType;
+import com.ibm.certification.clinical_system.repository.AppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory occupancy index of booked appointment slots, kept per doctor as a
+ * sorted array of start minutes so conflict checks never touch the database.
+ */
+@Component
+public class AppointmentSlotIndex {
+
+    public static final int APPOINTMENT_MINUTES = 30;
+
+    private static final long NO_SLOT = Long.MIN_VALUE;
+
+    private static final long NONE = -1L;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    private final ConcurrentHashMap<Long, DoctorSlots> slotsByDoctor = new ConcurrentHashMap<>();
+
+    // Where each indexed appointment lives, so an update that changes the doctor frees the old slot
+    private final ConcurrentHashMap<Long, Long> doctorByAppointment = new ConcurrentHashMap<>();
+
+    private final List<SlotChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(SlotChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @PostConstruct
+    void init() {
+        changeFeed.addListener(this::applyRemoteChange);
+        rebuild();
+    }
+
+    public void rebuild() {
+        slotsByDoctor.clear();
+        doctorByAppointment.clear();
+        List<Object[]> rows = appointmentRepository.findSlotOccupancy(AppointmentStatus.CANCELLED);
+        for (Object[] row : rows) {
+            Long appointmentId = (Long) row[0];
+            Long doctorId = (Long) row[1];
+            LocalDateTime appointmentTime = (LocalDateTime) row[2];
+            slotsFor(doctorId).add(appointmentId, toMinute(appointmentTime));
+            doctorByAppointment.put(appointmentId, doctorId);
+        }
+    }
+
+    public boolean isAvailable(Long doctorId, LocalDateTime appointmentTime) {
+        return isAvailable(doctorId, appointmentTime, null);
+    }
+
+    /**
+     * Whether the slot is free apart from the given appointment's own entry,
+     * for checking an update to an appointment that may already occupy it.
+     */
+    public boolean isAvailable(Long doctorId, LocalDateTime appointmentTime, Long appointmentId) {
+        DoctorSlots slots = slotsByDoctor.get(doctorId);
+        return slots == null
+            || !slots.overlaps(toMinute(appointmentTime), appointmentId != null ? appointmentId : NONE);
+    }
+
+    public void place(Appointment appointment) {
+        place(appointment.getDoctor().getId(), appointment.getId(), appointment.getAppointmentTime(),
+            occupiesSlot(appointment.getStatus()));
+    }
+
+    private void place(Long doctorId, Long appointmentId, LocalDateTime appointmentTime, boolean occupies) {
+        Long previousDoctorId = occupies
+            ? doctorByAppointment.put(appointmentId, doctorId)
+            : doctorByAppointment.remove(appointmentId);
+        if (previousDoctorId != null && !previousDoctorId.equals(doctorId)) {
+            removeFrom(previousDoctorId, appointmentId);
+        }
+        DoctorSlots slots = slotsFor(doctorId);
+        notifyRemoved(doctorId, slots.remove(appointmentId));
+        if (occupies) {
+            long minute = toMinute(appointmentTime);
+            slots.add(appointmentId, minute);
+            notifyChanged(doctorId, minute);
+        }
+    }
+
+    public void remove(Long doctorId, Long appointmentId) {
+        Long indexedDoctorId = doctorByAppointment.remove(appointmentId);
+        removeFrom(indexedDoctorId != null ? indexedDoctorId : doctorId, appointmentId);
+    }
+
+    private void removeFrom(Long doctorId, Long appointmentId) {
+        DoctorSlots slots = slotsByDoctor.get(doctorId);
+        if (slots != null) {
+            notifyRemoved(doctorId, slots.remove(appointmentId));
+        }
+    }
+
+    void applyRemoteChange(ChangeEvent event) {
+        if (event.type() == ChangeType.APPOINTMENT_SAVED) {
+            place(event.doctorId(), event.entityId(), event.slotTime(), event.occupiesSlot());
+        } else if (event.type() == ChangeType.APPOINTMENT_DELETED || event.type() == ChangeType.APPOINTMENT_ARCHIVED) {
+            remove(event.doctorId(), event.entityId());
+        }
+    }
+
+    public static boolean occupiesSlot(AppointmentStatus status) {
+        return status != AppointmentStatus.CANCELLED;
+    }
+
+    private DoctorSlots slotsFor(Long doctorId) {
+        return slotsByDoctor.computeIfAbsent(doctorId, id -> new DoctorSlots());
+    }
+
+    private void notifyRemoved(Long doctorId, long minute) {
+        if (minute != NO_SLOT) {
+            notifyChanged(doctorId, minute);
+        }
+    }
+
+    private void notifyChanged(Long doctorId, long minute) {
+        LocalDateTime time = LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+        for (SlotChangeListener listener : listeners) {
+            listener.slotChanged(doctorId, time);
+        }
+    }
+
+    private static long toMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    @FunctionalInterface
+    public interface SlotChangeListener {
+        void slotChanged(Long doctorId, LocalDateTime appointmentTime);
+    }
+
+    static final class DoctorSlots {
+        private long[] minutes = new long[8];
+        private long[] appointmentIds = new long[8];
+        private int size;
+
+        synchronized boolean overlaps(long minute, long ignoredAppointmentId) {
+            int end = firstAfter(minute + APPOINTMENT_MINUTES - 1);
+            for (int i = firstAfter(minute - APPOINTMENT_MINUTES); i < end; i++) {
+                if (appointmentIds[i] != ignoredAppointmentId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        synchronized void add(long appointmentId, long minute) {
+            if (size == minutes.length) {
+                minutes = Arrays.copyOf(minutes, size * 2);
+                appointmentIds = Arrays.copyOf(appointmentIds, size * 2);
+            }
+            int i = firstAfter(minute);
+            System.arraycopy(minutes, i, minutes, i + 1, size - i);
+            System.arraycopy(appointmentIds, i, appointmentIds, i + 1, size - i);
+            minutes[i] = minute;
+            appointmentIds[i] = appointmentId;
+            size++;
+        }
+
+        synchronized long remove(long appointmentId) {
+            for (int i = 0; i < size; i++) {
+                if (appointmentIds[i] == appointmentId) {
+                    long minute = minutes[i];
+                    System.arraycopy(minutes, i + 1, minutes, i, size - i - 1);
+                    System.arraycopy(appointmentIds, i + 1, appointmentIds, i, size - i - 1);
+                    size--;
+                    return minute;
+                }
+            }
+            return NO_SLOT;
+        }
+
+        private int firstAfter(long minute) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (minutes[mid] <= minute) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
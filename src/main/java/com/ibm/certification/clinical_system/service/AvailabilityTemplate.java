@@ -0,0 +1,81 @@
+package com.ibm.certification.clinical_system.service;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A doctor's bookable start times, parsed once from {@code Doctor.availableTimes}
+ * into a 96-bit mask of 15-minute slots. Accepts single start times
+ * ("09:00,10:00") and ranges ("09:00-17:00"), which are split into
+ * appointment-length slots. Start times must fall on the 15-minute grid;
+ * entries that are malformed or off the grid are dropped.
+ */
+public final class AvailabilityTemplate {
+
+    public static final int SLOT_MINUTES = 15;
+
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private static final AvailabilityTemplate DEFAULT = parse("09:00,10:00,11:00,12:00,13:00,14:00,15:00,16:00,17:00");
+
+    private final long[] mask = new long[(SLOTS_PER_DAY + 63) / 64];
+
+    private AvailabilityTemplate() {}
+
+    public static AvailabilityTemplate parse(String availableTimes) {
+        if (availableTimes == null || availableTimes.isBlank()) {
+            return DEFAULT;
+        }
+
+        AvailabilityTemplate template = new AvailabilityTemplate();
+        for (String token : availableTimes.split(",")) {
+            String slot = token.trim();
+            try {
+                int dash = slot.indexOf('-');
+                if (dash < 0) {
+                    template.set(toSlot(LocalTime.parse(slot)));
+                } else {
+                    int start = toSlot(LocalTime.parse(slot.substring(0, dash).trim())) * SLOT_MINUTES;
+                    int end = toMinute(LocalTime.parse(slot.substring(dash + 1).trim()));
+                    for (int minute = start; minute + AppointmentSlotIndex.APPOINTMENT_MINUTES <= end;
+                         minute += AppointmentSlotIndex.APPOINTMENT_MINUTES) {
+                        template.set(minute / SLOT_MINUTES);
+                    }
+                }
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                // Ignore malformed entries rather than hiding the doctor's whole schedule
+            }
+        }
+        return template;
+    }
+
+    public List<LocalTime> startTimes() {
+        List<LocalTime> startTimes = new ArrayList<>();
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                int slot = word * 64 + Long.numberOfTrailingZeros(bits);
+                startTimes.add(LocalTime.ofSecondOfDay((long) slot * SLOT_MINUTES * 60));
+                bits &= bits - 1;
+            }
+        }
+        return startTimes;
+    }
+
+    private void set(int slot) {
+        mask[slot >>> 6] |= 1L << (slot & 63);
+    }
+
+    private static int toSlot(LocalTime time) {
+        if (time.getMinute() % SLOT_MINUTES != 0 || time.getSecond() != 0 || time.getNano() != 0) {
+            throw new IllegalArgumentException("Start time " + time + " is not on the " + SLOT_MINUTES + "-minute grid");
+        }
+        return toMinute(time) / SLOT_MINUTES;
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,72 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Appointment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of locks striped by (doctor, day). A booking holds the stripes of
+ * every day its conflict window touches, so two bookings that could collide
+ * always share a stripe while other doctors and days proceed in parallel.
+ */
+@Component
+public class BookingLocks {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public BookingLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withSlotLock(Long doctorId, LocalDateTime appointmentTime, Supplier<T> action) {
+        SortedSet<Integer> stripes = new TreeSet<>();
+        addStripes(stripes, doctorId, appointmentTime);
+        return withStripes(stripes, action);
+    }
+
+    public <T> T withSlotLocks(Collection<Appointment> appointments, Supplier<T> action) {
+        SortedSet<Integer> stripes = new TreeSet<>();
+        for (Appointment appointment : appointments) {
+            addStripes(stripes, appointment.getDoctor().getId(), appointment.getAppointmentTime());
+        }
+        return withStripes(stripes, action);
+    }
+
+    private void addStripes(SortedSet<Integer> stripes, Long doctorId, LocalDateTime appointmentTime) {
+        int window = AppointmentSlotIndex.APPOINTMENT_MINUTES - 1;
+        stripes.add(stripe(doctorId, appointmentTime.minusMinutes(window).toLocalDate().toEpochDay()));
+        stripes.add(stripe(doctorId, appointmentTime.plusMinutes(window).toLocalDate().toEpochDay()));
+    }
+
+    private <T> T withStripes(SortedSet<Integer> stripes, Supplier<T> action) {
+        int acquired = 0;
+        Integer[] order = stripes.toArray(new Integer[0]);
+        try {
+            for (Integer stripe : order) {
+                locks[stripe].lock();
+                acquired++;
+            }
+            return action.get();
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                locks[order[i]].unlock();
+            }
+        }
+    }
+
+    private static int stripe(Long doctorId, long epochDay) {
+        long h = doctorId * 0x9E3779B97F4A7C15L + epochDay;
+        h ^= (h >>> 32) ^ (h >>> 16);
+        return (int) (h & (STRIPES - 1));
+    }
+}
@@ -0,0 +1,54 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.ChangeType;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.entity.Prescription;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed mutation as carried by the {@link ChangeFeed}. Appointment
+ * events carry the slot, so other nodes can update their occupancy index
+ * without reading the appointment back.
+ */
+public record ChangeEvent(long id, ChangeType type, Long entityId, Long doctorId, Long patientId,
+                          LocalDateTime slotTime, boolean occupiesSlot, String origin) {
+
+    public static ChangeEvent appointmentSaved(Appointment appointment) {
+        return new ChangeEvent(0, ChangeType.APPOINTMENT_SAVED, appointment.getId(), appointment.getDoctor().getId(),
+            appointment.getPatient().getId(), appointment.getAppointmentTime(),
+            AppointmentSlotIndex.occupiesSlot(appointment.getStatus()), null);
+    }
+
+    public static ChangeEvent appointmentDeleted(Appointment appointment) {
+        return new ChangeEvent(0, ChangeType.APPOINTMENT_DELETED, appointment.getId(), appointment.getDoctor().getId(),
+            appointment.getPatient().getId(), appointment.getAppointmentTime(), false, null);
+    }
+
+    public static ChangeEvent appointmentArchived(Long id, Long doctorId, Long patientId, LocalDateTime time) {
+        return new ChangeEvent(0, ChangeType.APPOINTMENT_ARCHIVED, id, doctorId, patientId, time, false, null);
+    }
+
+    public static ChangeEvent prescriptionSaved(Long id, Prescription prescription) {
+        return new ChangeEvent(0, ChangeType.PRESCRIPTION_SAVED, id, prescription.getDoctor().getId(),
+            prescription.getPatient().getId(), null, false, null);
+    }
+
+    public static ChangeEvent prescriptionDeleted(Long id) {
+        return new ChangeEvent(0, ChangeType.PRESCRIPTION_DELETED, id, null, null, null, false, null);
+    }
+
+    public static ChangeEvent patientSaved(Patient patient) {
+        return patientSaved(patient.getId());
+    }
+
+    public static ChangeEvent patientSaved(Long id) {
+        return new ChangeEvent(0, ChangeType.PATIENT_SAVED, id, null, id, null, false, null);
+    }
+
+    public static ChangeEvent doctorSaved(Doctor doctor) {
+        return new ChangeEvent(0, ChangeType.DOCTOR_SAVED, doctor.getId(), doctor.getId(), null, null, false, null);
+    }
+}
@@ -0,0 +1,269 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.ChangeType;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional outbox for appointment, prescription, patient and doctor
+ * mutations. Services {@link #publish} events inside the transaction that makes
+ * the change, so an event exists exactly when the change committed. Each node
+ * tails the outbox table by id and hands the events written by other nodes to
+ * its listeners, which invalidate the affected cache keys; a node's own changes
+ * are already applied locally when they are made. Each listener runs in its
+ * own read-write transaction, so whatever it reloads comes from the primary;
+ * a replica may not have the remote change yet.
+ * <p>
+ * Ids are assigned at insert but become visible at commit, so a lower id can
+ * appear after a higher one. The poller therefore stops at a gap and only
+ * skips it once it has stayed open for {@link #GAP_TIMEOUT}; until then no
+ * event after it is delivered, and every rollback of a publishing
+ * transaction leaves such a gap. Skipped ids are logged and looked up again
+ * on each poll for {@link #SKIPPED_RETRY_WINDOW}, so a transaction that
+ * commits late still has its events delivered, out of order. That is safe
+ * for the listeners because a later change to the same row cannot commit
+ * before it. An event committed after the retry window is never delivered,
+ * and its entries stay stale until they expire or the node restarts.
+ */
+@Component
+public class ChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    static final Duration GAP_TIMEOUT = Duration.ofSeconds(1);
+
+    static final Duration SKIPPED_RETRY_WINDOW = Duration.ofMinutes(1);
+
+    private static final Duration RETENTION = Duration.ofDays(1);
+
+    private static final int POLL_LIMIT = 1_000;
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events "
+        + "(type, entity_id, doctor_id, patient_id, slot_time, occupies_slot, origin, created_at) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String POLL_SQL = "SELECT id, type, entity_id, doctor_id, patient_id, slot_time, "
+        + "occupies_slot, origin FROM outbox_events WHERE id > ? ORDER BY id LIMIT " + POLL_LIMIT;
+
+    private static final String SKIPPED_SQL = "SELECT id, type, entity_id, doctor_id, patient_id, slot_time, "
+        + "occupies_slot, origin FROM outbox_events WHERE id IN (:ids) ORDER BY id";
+
+    private static final RowMapper<ChangeEvent> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp slotTime = rs.getTimestamp("slot_time");
+        return new ChangeEvent(
+            rs.getLong("id"),
+            ChangeType.valueOf(rs.getString("type")),
+            rs.getLong("entity_id"),
+            rs.getObject("doctor_id", Long.class),
+            rs.getObject("patient_id", Long.class),
+            slotTime != null ? slotTime.toLocalDateTime() : null,
+            rs.getBoolean("occupies_slot"),
+            rs.getString("origin"));
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${clinic.startup.warm-up:true}")
+    private boolean warmUp;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private long lastId = -1;
+
+    private boolean gapOpen;
+
+    private long gapSince;
+
+    // Skipped ids that may still commit, mapped to when they were skipped
+    private final NavigableMap<Long, Long> skipped = new TreeMap<>();
+
+    /**
+     * Starts the feed at the current end of the outbox. The caches that are
+     * built from the database at startup depend on this bean, so they load
+     * after this point and anything committed in between is replayed to them
+     * rather than lost. Without warm-up there may be no database yet, and the
+     * first poll reads the position instead.
+     */
+    @PostConstruct
+    void init() {
+        if (warmUp) {
+            lastId = highWaterMark();
+        }
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Appends the events to the outbox. Must run inside the transaction that
+     * makes the change, so that both commit or roll back together.
+     */
+    public void publish(List<ChangeEvent> events) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Change events must be published inside the mutating transaction");
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (statement, event) -> {
+            statement.setString(1, event.type().name());
+            statement.setLong(2, event.entityId());
+            statement.setObject(3, event.doctorId());
+            statement.setObject(4, event.patientId());
+            statement.setTimestamp(5, event.slotTime() != null ? Timestamp.valueOf(event.slotTime()) : null);
+            statement.setBoolean(6, event.occupiesSlot());
+            statement.setString(7, nodeId);
+            statement.setTimestamp(8, now);
+        });
+    }
+
+    public void publish(ChangeEvent event) {
+        publish(List.of(event));
+    }
+
+    /**
+     * Runs the action once the current transaction commits, or right away
+     * outside one. Local caches are updated this way, so a rolled-back change
+     * never reaches them and a concurrent reader cannot re-cache the state from
+     * before the commit.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${clinic.outbox.poll-interval-ms:500}")
+    public synchronized void poll() {
+        if (lastId < 0) {
+            lastId = highWaterMark();
+        }
+        recheckSkipped();
+        List<ChangeEvent> events;
+        do {
+            events = jdbcTemplate.query(POLL_SQL, ROW_MAPPER, lastId);
+            for (ChangeEvent event : events) {
+                if (event.id() != lastId + 1) {
+                    if (!gapExpired()) {
+                        return;
+                    }
+                    skip(lastId + 1, event.id() - 1);
+                }
+                gapOpen = false;
+                lastId = event.id();
+                if (!nodeId.equals(event.origin())) {
+                    deliver(event);
+                }
+            }
+        } while (events.size() == POLL_LIMIT);
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS, initialDelay = 1)
+    public void purge() {
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE created_at < ?",
+            Timestamp.valueOf(LocalDateTime.now().minus(RETENTION)));
+    }
+
+    private long highWaterMark() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM outbox_events", Long.class);
+        return maxId != null ? maxId : 0L;
+    }
+
+    private boolean gapExpired() {
+        long now = System.nanoTime();
+        if (!gapOpen) {
+            gapOpen = true;
+            gapSince = now;
+            return false;
+        }
+        return now - gapSince >= GAP_TIMEOUT.toNanos();
+    }
+
+    private void skip(long fromId, long toId) {
+        log.info("Skipping outbox ids {} to {}, still uncommitted after {}", fromId, toId, GAP_TIMEOUT);
+        long now = System.nanoTime();
+        // A huge gap is not a batch of slow transactions; only look for the ids closest to the next event
+        for (long id = Math.max(fromId, toId - POLL_LIMIT + 1); id <= toId; id++) {
+            skipped.put(id, now);
+        }
+        while (skipped.size() > POLL_LIMIT) {
+            skipped.pollFirstEntry();
+        }
+    }
+
+    private void recheckSkipped() {
+        long now = System.nanoTime();
+        skipped.values().removeIf(since -> now - since >= SKIPPED_RETRY_WINDOW.toNanos());
+        if (skipped.isEmpty()) {
+            return;
+        }
+        List<ChangeEvent> late = namedParameterJdbcTemplate.query(SKIPPED_SQL,
+            Map.of("ids", skipped.keySet()), ROW_MAPPER);
+        for (ChangeEvent event : late) {
+            log.info("Delivering outbox event {} that committed after it was skipped", event.id());
+            skipped.remove(event.id());
+            if (!nodeId.equals(event.origin())) {
+                deliver(event);
+            }
+        }
+    }
+
+    private void deliver(ChangeEvent event) {
+        for (Listener listener : listeners) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> listener.onChange(event));
+            } catch (RuntimeException e) {
+                log.warn("Change listener failed for outbox event {}", event.id(), e);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onChange(ChangeEvent event);
+    }
+}
@@ -0,0 +1,127 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.dto.DoctorView;
+import com.ibm.certification.clinical_system.entity.Doctor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the doctor roster. Readers share one instance without
+ * locking; a change builds a new snapshot that is swapped in atomically, which
+ * is cheap because the roster is small and changes a few times a week.
+ */
+public final class DoctorDirectory {
+
+    static final DoctorDirectory EMPTY = new DoctorDirectory(0L, List.of());
+
+    private final long version;
+
+    private final List<DoctorView> doctors;
+
+    private final Map<Long, Listing> listingsById;
+
+    private final Map<String, List<DoctorView>> doctorsBySpecialty;
+
+    private DoctorDirectory(long version, List<DoctorView> doctorsById) {
+        this.version = version;
+        this.doctors = List.copyOf(doctorsById);
+
+        Map<Long, Listing> listings = new HashMap<>();
+        for (DoctorView doctor : doctors) {
+            listings.put(doctor.id(), new Listing(doctor, AvailabilityTemplate.parse(doctor.availableTimes())));
+        }
+        this.listingsById = Map.copyOf(listings);
+        this.doctorsBySpecialty = doctors.stream()
+            .collect(Collectors.collectingAndThen(
+                Collectors.groupingBy(doctor -> specialtyKey(doctor.specialty()), Collectors.toUnmodifiableList()),
+                Map::copyOf));
+    }
+
+    static DoctorDirectory of(Collection<Doctor> doctors, long version) {
+        List<DoctorView> views = new ArrayList<>(doctors.size());
+        for (Doctor doctor : doctors) {
+            views.add(DoctorView.of(doctor));
+        }
+        views.sort(Comparator.comparing(DoctorView::id));
+        return new DoctorDirectory(version, views);
+    }
+
+    /**
+     * A copy of this snapshot with the given doctor added or replaced.
+     */
+    DoctorDirectory with(Doctor doctor) {
+        DoctorView updated = DoctorView.of(doctor);
+        List<DoctorView> views = new ArrayList<>(doctors.size() + 1);
+        views.addAll(doctors);
+        int position = indexAfter(doctors, updated.id() - 1);
+        if (position < views.size() && views.get(position).id().equals(updated.id())) {
+            views.set(position, updated);
+        } else {
+            views.add(position, updated);
+        }
+        return new DoctorDirectory(version + 1, views);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<DoctorView> all() {
+        return doctors;
+    }
+
+    /**
+     * Doctors of a specialty, ignoring case and surrounding whitespace.
+     */
+    public List<DoctorView> bySpecialty(String specialty) {
+        return doctorsBySpecialty.getOrDefault(specialtyKey(specialty), List.of());
+    }
+
+    /**
+     * Up to {@code count} doctors with an id greater than {@code afterId}, as
+     * a view over the snapshot.
+     */
+    public List<DoctorView> after(long afterId, int count) {
+        return slice(doctors, afterId, count);
+    }
+
+    public List<DoctorView> bySpecialty(String specialty, long afterId, int count) {
+        return slice(bySpecialty(specialty), afterId, count);
+    }
+
+    public Listing get(Long doctorId) {
+        return listingsById.get(doctorId);
+    }
+
+    private static List<DoctorView> slice(List<DoctorView> sorted, long afterId, int count) {
+        int from = indexAfter(sorted, afterId);
+        return sorted.subList(from, Math.min(from + count, sorted.size()));
+    }
+
+    private static int indexAfter(List<DoctorView> sorted, long afterId) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.get(mid).id() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public static String specialtyKey(String specialty) {
+        return specialty == null ? "" : specialty.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record Listing(DoctorView doctor, AvailabilityTemplate template) {}
+}
@@ -1,16 +1,32 @@
 package com.ibm.certification.clinical_system.service;
 
+import com.ibm.certification.clinical_system.dto.AvailableSlot;
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.DoctorAvailability;
+import com.ibm.certification.clinical_system.dto.DoctorView;
+import com.ibm.certification.clinical_system.entity.ChangeType;
 import com.ibm.certification.clinical_system.entity.Doctor;
 import com.ibm.certification.clinical_system.repository.DoctorRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class DoctorService {
@@ -18,56 +34,199 @@ public class DoctorService {
     @Autowired
     private DoctorRepository doctorRepository;
     
-    public List<Doctor> getAllDoctors() {
-        return doctorRepository.findAll();
+    @Autowired
+    private AppointmentSlotIndex slotIndex;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private static final int MAX_CACHED_DAYS = 10_000;
+    
+    public static final int MAX_SEARCH_DAYS = 31;
+    
+    private final AtomicReference<DoctorDirectory> directory = new AtomicReference<>(DoctorDirectory.EMPTY);
+    
+    private final ConcurrentHashMap<CalendarDay, List<String>> freeSlots = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void init() {
+        slotIndex.addListener(this::invalidateAvailability);
+        changeFeed.addListener(this::applyRemoteChange);
+        reloadDirectory();
+    }
+    
+    public void reloadDirectory() {
+        List<Doctor> doctors = doctorRepository.findAll();
+        directory.updateAndGet(current -> DoctorDirectory.of(doctors, current.version() + 1));
+        freeSlots.clear();
+    }
+    
+    public DoctorDirectory getDirectory() {
+        return directory.get();
+    }
+    
+    public List<DoctorView> getAllDoctors() {
+        return directory.get().all();
+    }
+    
+    public CursorPage<DoctorView> getDoctors(ContinuationToken after, int limit) {
+        List<DoctorView> fetched = directory.get().after(afterId(after), limit + 1);
+        return CursorPage.of(fetched, limit, view -> ContinuationToken.of(view.id()));
     }
     
+    @Transactional(readOnly = true)
     public Optional<Doctor> getDoctorById(Long id) {
         return doctorRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public List<Doctor> getDoctorsByIds(Collection<Long> ids) {
+        return doctorRepository.findAllById(ids);
+    }
+    
+    @Transactional(readOnly = true)
     public boolean validateDoctorCredentials(String email) {
         return doctorRepository.findByEmail(email).isPresent();
     }
     
     public List<String> getAvailableTimeSlots(Long doctorId, LocalDate date) {
-        List<String> timeSlots = new ArrayList<>();
-        Optional<Doctor> doctorOpt = doctorRepository.findById(doctorId);
+        return getAvailability(doctorId, date)
+            .map(DoctorAvailability::availableTimeSlots)
+            .orElse(List.of());
+    }
+    
+    public Optional<DoctorAvailability> getAvailability(Long doctorId, LocalDate date) {
+        DoctorDirectory.Listing listing = directory.get().get(doctorId);
+        if (listing == null) {
+            return Optional.empty();
+        }
         
-        if (doctorOpt.isPresent()) {
-            Doctor doctor = doctorOpt.get();
-            String availableTimes = doctor.getAvailableTimes();
-            
-            if (availableTimes != null && !availableTimes.isEmpty()) {
-                String[] slots = availableTimes.split(",");
-                for (String slot : slots) {
-                    timeSlots.add(slot.trim());
-                }
-            } else {
-                for (int hour = 9; hour <= 17; hour++) {
-                    timeSlots.add(String.format("%02d:00", hour));
+        List<String> slots = cachedFreeSlots(doctorId, date, listing.template());
+        
+        return Optional.of(new DoctorAvailability(doctorId, listing.doctor().name(), date, slots));
+    }
+    
+    public List<AvailableSlot> searchAvailability(String specialty, LocalDate from, LocalDate to, int limit) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_SEARCH_DAYS) {
+            throw new IllegalArgumentException("Search range cannot exceed " + MAX_SEARCH_DAYS + " days");
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        DoctorDirectory snapshot = directory.get();
+        List<List<AvailableSlot>> slotsPerDoctor = snapshot.bySpecialty(specialty).parallelStream()
+            .map(doctor -> earliestFreeSlots(snapshot.get(doctor.id()), from, to, now, limit))
+            .filter(slots -> !slots.isEmpty())
+            .toList();
+        
+        PriorityQueue<SlotCursor> heap = new PriorityQueue<>(
+            Comparator.comparing((SlotCursor cursor) -> cursor.current().startTime())
+                .thenComparing(cursor -> cursor.current().doctorId()));
+        for (List<AvailableSlot> slots : slotsPerDoctor) {
+            heap.add(new SlotCursor(slots, 0));
+        }
+        
+        List<AvailableSlot> earliest = new ArrayList<>(limit);
+        while (earliest.size() < limit && !heap.isEmpty()) {
+            SlotCursor cursor = heap.poll();
+            earliest.add(cursor.current());
+            if (cursor.position() + 1 < cursor.slots().size()) {
+                heap.add(new SlotCursor(cursor.slots(), cursor.position() + 1));
+            }
+        }
+        return earliest;
+    }
+    
+    private List<AvailableSlot> earliestFreeSlots(DoctorDirectory.Listing listing, LocalDate from, LocalDate to,
+                                                  LocalDateTime notBefore, int limit) {
+        DoctorView doctor = listing.doctor();
+        List<AvailableSlot> slots = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to) && slots.size() < limit; date = date.plusDays(1)) {
+            for (String freeTime : cachedFreeSlots(doctor.id(), date, listing.template())) {
+                LocalDateTime startTime = date.atTime(LocalTime.parse(freeTime));
+                if (startTime.isAfter(notBefore)) {
+                    slots.add(new AvailableSlot(doctor.id(), doctor.name(), doctor.specialty(), startTime));
                 }
             }
         }
-        
-        return timeSlots;
+        return slots;
+    }
+    
+    private List<String> cachedFreeSlots(Long doctorId, LocalDate date, AvailabilityTemplate template) {
+        if (freeSlots.size() > MAX_CACHED_DAYS) {
+            freeSlots.clear();
+        }
+        return freeSlots.computeIfAbsent(new CalendarDay(doctorId, date),
+            day -> computeFreeSlots(doctorId, date, template));
+    }
+    
+    private List<String> computeFreeSlots(Long doctorId, LocalDate date, AvailabilityTemplate template) {
+        List<String> slots = new ArrayList<>();
+        for (LocalTime startTime : template.startTimes()) {
+            if (slotIndex.isAvailable(doctorId, date.atTime(startTime))) {
+                slots.add(startTime.toString());
+            }
+        }
+        return List.copyOf(slots);
     }
     
+    public void invalidateAvailability(Long doctorId, LocalDateTime appointmentTime) {
+        int window = AppointmentSlotIndex.APPOINTMENT_MINUTES - 1;
+        freeSlots.remove(new CalendarDay(doctorId, appointmentTime.minusMinutes(window).toLocalDate()));
+        freeSlots.remove(new CalendarDay(doctorId, appointmentTime.plusMinutes(window).toLocalDate()));
+    }
+    
+    @Transactional
     public Doctor saveDoctor(Doctor doctor) {
-        return doctorRepository.save(doctor);
+        Doctor savedDoctor = doctorRepository.save(doctor);
+        changeFeed.publish(ChangeEvent.doctorSaved(savedDoctor));
+        ChangeFeed.afterCommit(() -> {
+            directory.updateAndGet(current -> current.with(savedDoctor));
+            freeSlots.keySet().removeIf(day -> day.doctorId().equals(savedDoctor.getId()));
+        });
+        return savedDoctor;
+    }
+    
+    void applyRemoteChange(ChangeEvent event) {
+        if (event.type() != ChangeType.DOCTOR_SAVED) {
+            return;
+        }
+        entityManagerFactory.getCache().evict(Doctor.class, event.entityId());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache()
+            .evictQueryRegion(DoctorRepository.EMAIL_LOOKUP_REGION);
+        doctorRepository.findById(event.entityId()).ifPresent(doctor -> {
+            directory.updateAndGet(current -> current.with(doctor));
+            freeSlots.keySet().removeIf(day -> day.doctorId().equals(doctor.getId()));
+        });
+    }
+    
+    public List<DoctorView> getDoctorsBySpecialty(String specialty) {
+        return directory.get().bySpecialty(specialty);
     }
     
-    public List<Doctor> getDoctorsBySpecialty(String specialty) {
-        return doctorRepository.findBySpecialty(specialty);
+    public CursorPage<DoctorView> getDoctorsBySpecialty(String specialty, ContinuationToken after, int limit) {
+        List<DoctorView> fetched = directory.get().bySpecialty(specialty, afterId(after), limit + 1);
+        return CursorPage.of(fetched, limit, view -> ContinuationToken.of(view.id()));
+    }
+    
+    private static long afterId(ContinuationToken after) {
+        return after != null ? after.idOrZero() : 0L;
     }
     
     public boolean isDoctorAvailableAtTime(Long doctorId, LocalDateTime appointmentTime) {
-        LocalDateTime startTime = appointmentTime.minusMinutes(30);
-        LocalDateTime endTime = appointmentTime.plusMinutes(30);
-        
-        List<Doctor> availableDoctors = doctorRepository.findDoctorAvailableAtTime(
-            doctorId, startTime, endTime);
-        
-        return !availableDoctors.isEmpty();
+        return slotIndex.isAvailable(doctorId, appointmentTime);
+    }
+    
+    private record CalendarDay(Long doctorId, LocalDate date) {}
+    
+    private record SlotCursor(List<AvailableSlot> slots, int position) {
+        AvailableSlot current() {
+            return slots.get(position);
+        }
     }
-}
\ No newline at end of file
+}
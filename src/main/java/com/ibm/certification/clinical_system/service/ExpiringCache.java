@@ -0,0 +1,155 @@
+package com.ibm.certification.clinical_system.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Small LRU cache whose entries also expire after a fixed time to live.
+ * Loaders run outside the lock, so a slow database lookup never blocks other
+ * readers. A load that overlaps an invalidation is returned but not cached,
+ * so a lookup racing a save cannot pin the pre-save answer.
+ */
+public class ExpiringCache<K, V> {
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private long generation;
+
+    public ExpiringCache(int maxSize, Duration ttl) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (entries) {
+            V cached = lookup(key);
+            if (cached != null) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            Entry<V> entry = new Entry<>(loaded, System.nanoTime() + ttlNanos);
+            synchronized (entries) {
+                if (loadGeneration == generation) {
+                    entries.put(key, entry);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * The cached value, or {@code null} on a miss; counts towards the hit and
+     * miss statistics either way.
+     */
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            return lookup(key);
+        }
+    }
+
+    /**
+     * Caches a value the caller already has; unlike {@link #get} it does not
+     * touch the hit and miss statistics.
+     */
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            generation++;
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateValues(Predicate<V> predicate) {
+        synchronized (entries) {
+            generation++;
+            Iterator<Entry<V>> values = entries.values().iterator();
+            while (values.hasNext()) {
+                if (predicate.test(values.next().value())) {
+                    values.remove();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Publishes hits, misses and size as {@code clinic.cache.*} meters tagged
+     * with the given cache name.
+     */
+    public void registerMetrics(MeterRegistry registry, String name) {
+        FunctionCounter.builder("clinic.cache.gets", this, ExpiringCache::hits)
+            .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("clinic.cache.gets", this, ExpiringCache::misses)
+            .tag("cache", name).tag("result", "miss").register(registry);
+        Gauge.builder("clinic.cache.size", this, ExpiringCache::size)
+            .tag("cache", name).register(registry);
+    }
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && System.nanoTime() - entry.expiresAt() < 0) {
+            hits.increment();
+            return entry.value();
+        }
+        if (entry != null) {
+            entries.remove(key);
+        }
+        misses.increment();
+        return null;
+    }
+
+    private record Entry<V>(V value, long expiresAt) {}
+}
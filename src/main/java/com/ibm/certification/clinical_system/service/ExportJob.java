@@ -0,0 +1,139 @@
+package com.ibm.certification.clinical_system.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Progress of one {@link ExportService} run. {@code checkpointId} is the id of
+ * the last row in the newest completed file: everything up to it is safely on
+ * disk, and a resumed export continues after it.
+ */
+public class ExportJob {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+
+    private final ExportService.Dataset dataset;
+
+    private final ExportService.Format format;
+
+    private final long rowsPerFile;
+
+    private final List<String> files = new CopyOnWriteArrayList<>();
+
+    private volatile State state = State.QUEUED;
+
+    private volatile long checkpointId;
+
+    private volatile long checkpointRows;
+
+    private volatile int nextPart;
+
+    private volatile long rowsExported;
+
+    private volatile long totalRows = -1;
+
+    private volatile LocalDateTime startedAt;
+
+    private volatile LocalDateTime finishedAt;
+
+    private volatile String error;
+
+    ExportJob(String id, ExportService.Dataset dataset, ExportService.Format format, long rowsPerFile,
+              long checkpointId, long checkpointRows, int nextPart, List<String> files) {
+        this.id = id;
+        this.dataset = dataset;
+        this.format = format;
+        this.rowsPerFile = rowsPerFile;
+        this.checkpointId = checkpointId;
+        this.checkpointRows = checkpointRows;
+        this.nextPart = nextPart;
+        this.rowsExported = checkpointRows;
+        this.files.addAll(files);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ExportService.Dataset getDataset() {
+        return dataset;
+    }
+
+    public ExportService.Format getFormat() {
+        return format;
+    }
+
+    public long getRowsPerFile() {
+        return rowsPerFile;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getCheckpointId() {
+        return checkpointId;
+    }
+
+    public long getCheckpointRows() {
+        return checkpointRows;
+    }
+
+    public int getNextPart() {
+        return nextPart;
+    }
+
+    public long getRowsExported() {
+        return rowsExported;
+    }
+
+    /** Rows to export in total, or -1 until the job has counted them. */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public List<String> getFiles() {
+        return List.copyOf(files);
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        state = State.RUNNING;
+    }
+
+    void counted(long remainingRows) {
+        totalRows = checkpointRows + remainingRows;
+    }
+
+    void rowExported() {
+        rowsExported++;
+    }
+
+    void fileCompleted(String file, long lastId) {
+        files.add(file);
+        checkpointId = lastId;
+        checkpointRows = rowsExported;
+        nextPart++;
+    }
+
+    void finished(String failure) {
+        finishedAt = LocalDateTime.now();
+        error = failure;
+        state = failure == null ? State.COMPLETED : State.FAILED;
+    }
+}
@@ -0,0 +1,438 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports every prescription or appointment to gzip-compressed NDJSON or CSV
+ * files in {@code clinic.export.directory}. Rows are read through one
+ * forward-only cursor and written straight to the file, so the heap holds one
+ * fetch batch no matter how many rows there are; on MySQL the driver streams
+ * row by row instead of opening a server-side cursor. A new file is started
+ * every {@code rowsPerFile} rows. A file is written under a temporary name,
+ * forced to disk and renamed once it is complete, and only then is the job's
+ * checkpoint (the last exported id) saved next to it, so a failed or
+ * interrupted export can be resumed from the last complete file, also after
+ * a restart.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    public enum Dataset {
+        PRESCRIPTIONS("SELECT pr.id, d.id, d.name, p.id, p.name, pr.medication, pr.dosage, pr.instructions, "
+            + "pr.created_at FROM prescriptions pr JOIN doctors d ON d.id = pr.doctor_id "
+            + "JOIN patients p ON p.id = pr.patient_id WHERE pr.id > ? ORDER BY pr.id",
+            "SELECT COUNT(*) FROM prescriptions WHERE id > ?",
+            "id", "doctorId", "doctorName", "patientId", "patientName", "medication", "dosage", "instructions",
+            "createdAt"),
+        APPOINTMENTS("SELECT a.id, d.id, d.name, p.id, p.name, a.appointment_time, a.status, a.notes "
+            + "FROM appointments a JOIN doctors d ON d.id = a.doctor_id "
+            + "JOIN patients p ON p.id = a.patient_id WHERE a.id > ? ORDER BY a.id",
+            "SELECT COUNT(*) FROM appointments WHERE id > ?",
+            "id", "doctorId", "doctorName", "patientId", "patientName", "appointmentTime", "status", "notes"),
+        ARCHIVED_APPOINTMENTS("SELECT a.id, d.id, d.name, p.id, p.name, a.appointment_time, a.status, a.notes "
+            + "FROM appointments_archive a JOIN doctors d ON d.id = a.doctor_id "
+            + "JOIN patients p ON p.id = a.patient_id WHERE a.id > ? ORDER BY a.id",
+            "SELECT COUNT(*) FROM appointments_archive WHERE id > ?",
+            "id", "doctorId", "doctorName", "patientId", "patientName", "appointmentTime", "status", "notes");
+
+        private final String sql;
+
+        private final String countSql;
+
+        private final List<String> columns;
+
+        Dataset(String sql, String countSql, String... columns) {
+            this.sql = sql;
+            this.countSql = countSql;
+            this.columns = List.of(columns);
+        }
+
+        public static Dataset parse(String value) {
+            return valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format parse(String value) {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        }
+
+        String extension() {
+            return name().toLowerCase(Locale.ROOT) + ".gz";
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Value("${clinic.export.directory:${java.io.tmpdir}/smart-clinic-exports}")
+    private Path directory;
+
+    @Value("${clinic.export.rows-per-file:1000000}")
+    private long defaultRowsPerFile;
+
+    @Value("${clinic.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "export-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Interrupts a running export; it fails at its next row and can be
+     * resumed from its checkpoint after the restart.
+     */
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public ExportJob startExport(String authToken, Dataset dataset, Format format, Long rowsPerFile) {
+        checkToken(authToken);
+        long perFile = rowsPerFile != null ? rowsPerFile : defaultRowsPerFile;
+        if (perFile < 1) {
+            throw new IllegalArgumentException("Rows per file must be positive");
+        }
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), dataset, format, perFile, 0, 0, 1, List.of());
+        return submit(job);
+    }
+
+    public ExportJob resumeExport(String authToken, String jobId) {
+        checkToken(authToken);
+        ExportJob current = jobs.get(checkJobId(jobId));
+        if (current != null && (current.getState() == ExportJob.State.QUEUED
+                || current.getState() == ExportJob.State.RUNNING)) {
+            throw new IllegalStateException("Export " + jobId + " is still running");
+        }
+        Properties checkpoint = loadCheckpoint(jobId);
+        if (Boolean.parseBoolean(checkpoint.getProperty("completed"))) {
+            throw new IllegalStateException("Export " + jobId + " has already completed");
+        }
+        String files = checkpoint.getProperty("files", "");
+        ExportJob job = new ExportJob(jobId,
+            Dataset.valueOf(checkpoint.getProperty("dataset")),
+            Format.valueOf(checkpoint.getProperty("format")),
+            Long.parseLong(checkpoint.getProperty("rowsPerFile")),
+            Long.parseLong(checkpoint.getProperty("lastId")),
+            Long.parseLong(checkpoint.getProperty("rows")),
+            Integer.parseInt(checkpoint.getProperty("nextPart")),
+            files.isEmpty() ? List.of() : Arrays.asList(files.split(",")));
+        return submit(job);
+    }
+
+    public Optional<ExportJob> getExport(String authToken, String jobId) {
+        checkToken(authToken);
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void checkToken(String authToken) {
+        if (!tokenService.validateToken(authToken)) {
+            throw new RuntimeException("Invalid or expired token");
+        }
+    }
+
+    private static String checkJobId(String jobId) {
+        // Job ids name files in the export directory, so nothing but a UUID may get through
+        return UUID.fromString(jobId).toString();
+    }
+
+    private ExportJob submit(ExportJob job) {
+        try {
+            Files.createDirectories(directory);
+            saveCheckpoint(job, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write to export directory " + directory, e);
+        }
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    private void run(ExportJob job) {
+        job.started();
+        try (PartWriter writer = new PartWriter(job)) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                job.counted(jdbcTemplate.queryForObject(job.getDataset().countSql, Long.class, job.getCheckpointId()));
+                jdbcTemplate.query(connection -> openCursor(connection, job), resultSet -> {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IllegalStateException("Export interrupted");
+                    }
+                    writer.write(resultSet);
+                });
+            });
+            writer.finish();
+            saveCheckpoint(job, true);
+            job.finished(null);
+            log.info("Export {} of {} completed with {} rows", job.getId(), job.getDataset(), job.getRowsExported());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Export {} of {} failed after {} rows, checkpoint at id {}",
+                job.getId(), job.getDataset(), job.getRowsExported(), job.getCheckpointId(), e);
+            job.finished(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        }
+    }
+
+    private PreparedStatement openCursor(Connection connection, ExportJob job) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(job.getDataset().sql,
+            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // The NDJSON streams read through the cursor fetch that useCursorFetch turns on, because
+        // their connection may run other statements mid-stream. A cursor makes the server copy
+        // the whole result to a temporary table first. This connection runs nothing else, so it
+        // streams rows off the socket instead (MIN_VALUE overrides useCursorFetch)
+        boolean mysql = connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("MySQL");
+        statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+        statement.setLong(1, job.getCheckpointId());
+        return statement;
+    }
+
+    private Path checkpointPath(String jobId) {
+        return directory.resolve(jobId + ".checkpoint");
+    }
+
+    private Properties loadCheckpoint(String jobId) {
+        Properties checkpoint = new Properties();
+        try (Reader reader = Files.newBufferedReader(checkpointPath(jobId), StandardCharsets.UTF_8)) {
+            checkpoint.load(reader);
+        } catch (NoSuchFileException e) {
+            throw new IllegalArgumentException("Unknown export " + jobId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return checkpoint;
+    }
+
+    private void saveCheckpoint(ExportJob job, boolean completed) throws IOException {
+        Properties checkpoint = new Properties();
+        checkpoint.setProperty("dataset", job.getDataset().name());
+        checkpoint.setProperty("format", job.getFormat().name());
+        checkpoint.setProperty("rowsPerFile", Long.toString(job.getRowsPerFile()));
+        checkpoint.setProperty("lastId", Long.toString(job.getCheckpointId()));
+        checkpoint.setProperty("rows", Long.toString(job.getCheckpointRows()));
+        checkpoint.setProperty("nextPart", Integer.toString(job.getNextPart()));
+        checkpoint.setProperty("files", String.join(",", job.getFiles()));
+        checkpoint.setProperty("completed", Boolean.toString(completed));
+
+        Path target = checkpointPath(job.getId());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            checkpoint.store(writer, null);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String text(ResultSet resultSet, int column) throws SQLException {
+        Object value = resultSet.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return TIMESTAMP_FORMAT.format(timestamp.toLocalDateTime());
+        }
+        return value != null ? value.toString() : null;
+    }
+
+    /** Writes the rows of one job into gzip part files, rotating every {@code rowsPerFile} rows. */
+    private final class PartWriter implements AutoCloseable {
+
+        private final ExportJob job;
+
+        private final List<String> columns;
+
+        private FileChannel channel;
+
+        private GZIPOutputStream gzip;
+
+        private OutputStream out;
+
+        private JsonGenerator json;
+
+        private Path temporary;
+
+        private Path target;
+
+        private long rowsInFile;
+
+        private long lastId;
+
+        PartWriter(ExportJob job) {
+            this.job = job;
+            this.columns = job.getDataset().columns;
+        }
+
+        void write(ResultSet resultSet) throws SQLException {
+            try {
+                if (out == null) {
+                    open();
+                }
+                lastId = resultSet.getLong(1);
+                if (job.getFormat() == Format.NDJSON) {
+                    writeJson(resultSet);
+                } else {
+                    writeCsv(resultSet);
+                }
+                rowsInFile++;
+                job.rowExported();
+                if (rowsInFile == job.getRowsPerFile()) {
+                    complete();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (out != null) {
+                complete();
+            }
+        }
+
+        private void open() throws IOException {
+            String name = String.format("%s-%s-%05d.%s", job.getDataset().name().toLowerCase(Locale.ROOT),
+                job.getId(), job.getNextPart(), job.getFormat().extension());
+            target = directory.resolve(name);
+            temporary = directory.resolve(name + ".tmp");
+            channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            gzip = new GZIPOutputStream(Channels.newOutputStream(channel), WRITE_BUFFER_SIZE);
+            out = new BufferedOutputStream(gzip, WRITE_BUFFER_SIZE);
+            rowsInFile = 0;
+            if (job.getFormat() == Format.NDJSON) {
+                json = objectMapper.getFactory().createGenerator(out);
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.setRootValueSeparator(null);
+            } else {
+                out.write((String.join(",", columns) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        private void writeJson(ResultSet resultSet) throws SQLException, IOException {
+            json.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                Object value = resultSet.getObject(i + 1);
+                json.writeFieldName(columns.get(i));
+                if (value instanceof Number number) {
+                    json.writeNumber(number.longValue());
+                } else {
+                    json.writeString(text(resultSet, i + 1));
+                }
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        private void writeCsv(ResultSet resultSet) throws SQLException, IOException {
+            StringBuilder line = new StringBuilder(256);
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                line.append(csvField(text(resultSet, i + 1)));
+            }
+            line.append('\n');
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void complete() throws IOException {
+            if (json != null) {
+                json.close();
+                json = null;
+            }
+            out.flush();
+            gzip.finish();
+            channel.force(true);
+            gzip.close();
+            out = null;
+            channel = null;
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.fileCompleted(target.getFileName().toString(), lastId);
+            saveCheckpoint(job, false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Only reached with an open file when the export failed; the partial file stays as .tmp
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.ibm.certification.clinical_system.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code errors} lists rejected rows by line number,
+ * capped so that a bad file cannot grow the report without bound.
+ */
+public record PatientImportReport(long rows, long imported, long duplicates, long failed,
+                                  List<RowError> errors, boolean errorsTruncated,
+                                  long elapsedMillis, double rowsPerSecond) {
+
+    public record RowError(long line, String error) {
+    }
+}
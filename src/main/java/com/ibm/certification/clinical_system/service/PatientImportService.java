@@ -0,0 +1,401 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.certification.clinical_system.dto.PatientImportRow;
+import com.ibm.certification.clinical_system.dto.PatientView;
+import com.ibm.certification.clinical_system.entity.Patient;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk patient import from NDJSON or CSV. The body is read line by line and
+ * rows are written in JDBC batches of {@code batch-size}, so only one batch of
+ * rows is held at a time. Emails and phones are deduplicated within the stream
+ * with hash sets of their normalized keys and against existing patients with
+ * chunked {@code IN} queries; a row whose email or phone is already known is
+ * counted as a duplicate. Each batch commits on its own together with its
+ * change events, so a failure only rejects the rows of that batch. Rows are
+ * checked against the column lengths and the entity's email constraint before
+ * they are batched, so one bad value is rejected on its own line.
+ */
+@Service
+public class PatientImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PatientImportService.class);
+
+    public static final int MAX_BATCH_SIZE = 5_000;
+
+    static final int MAX_REPORTED_ERRORS = 1_000;
+
+    private static final int IN_CHUNK_SIZE = 500;
+
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    private static final String INSERT_SQL = "INSERT INTO patients (name, email, phone, address, created_at) "
+        + "VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${clinic.import.batch-size:500}")
+    private int defaultBatchSize;
+
+    public enum Format { NDJSON, CSV }
+
+    public int defaultBatchSize() {
+        return defaultBatchSize;
+    }
+
+    public PatientImportReport importPatients(Reader body, Format format, int batchSize) throws IOException {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        Run run = new Run(batchSize);
+        BufferedReader reader = body instanceof BufferedReader buffered ? buffered : new BufferedReader(body);
+        CsvColumns columns = null;
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && columns == null) {
+                columns = CsvColumns.of(splitCsv(line));
+                continue;
+            }
+            run.rows++;
+            try {
+                PatientImportRow row = format == Format.CSV ? columns.row(splitCsv(line)) : parseJson(line);
+                run.accept(lineNumber, validated(row));
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, e.getMessage());
+            }
+        }
+        run.flush();
+        return run.report();
+    }
+
+    private PatientImportRow parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, PatientImportRow.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private PatientImportRow validated(PatientImportRow row) {
+        if (row.name() == null || row.name().isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (row.email() == null || !row.email().contains("@")) {
+            throw new IllegalArgumentException("A valid email is required");
+        }
+        if (row.phone() == null || row.phone().isBlank()) {
+            throw new IllegalArgumentException("Phone is required");
+        }
+        String address = row.address() != null && !row.address().isBlank() ? row.address().trim() : null;
+        PatientImportRow normalized = new PatientImportRow(row.name().trim(),
+            PatientService.normalizeEmail(row.email()), PatientService.normalizePhone(row.phone()), address);
+        checkLength("Name", normalized.name());
+        checkLength("Email", normalized.email());
+        checkLength("Phone", normalized.phone());
+        if (!validator.validateValue(Patient.class, "email", normalized.email()).isEmpty()) {
+            throw new IllegalArgumentException("A valid email is required");
+        }
+        return normalized;
+    }
+
+    private static void checkLength(String field, String value) {
+        if (value.codePointCount(0, value.length()) > MAX_COLUMN_LENGTH) {
+            throw new IllegalArgumentException(field + " must be at most " + MAX_COLUMN_LENGTH + " characters");
+        }
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields and {@code ""}
+     * escapes. Quoted fields may not span lines.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private Set<String> existing(String column, Set<String> keys) {
+        Set<String> found = new HashSet<>();
+        List<String> chunk = new ArrayList<>(IN_CHUNK_SIZE);
+        for (String key : keys) {
+            chunk.add(key);
+            if (chunk.size() == IN_CHUNK_SIZE) {
+                found.addAll(queryExisting(column, chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            found.addAll(queryExisting(column, chunk));
+        }
+        return found;
+    }
+
+    private List<String> queryExisting(String column, List<String> keys) {
+        List<String> values = namedParameterJdbcTemplate.queryForList(
+            "SELECT " + column + " FROM patients WHERE " + column + " IN (:keys)", Map.of("keys", keys), String.class);
+        return values.stream()
+            .map(column.equals("email") ? PatientService::normalizeEmail : PatientService::normalizePhone)
+            .toList();
+    }
+
+    private List<Long> insert(List<Pending> batch, Timestamp createdAt) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    PatientImportRow row = batch.get(i).row();
+                    statement.setString(1, row.name());
+                    statement.setString(2, row.email());
+                    statement.setString(3, row.phone());
+                    statement.setString(4, row.address());
+                    statement.setTimestamp(5, createdAt);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            }, keyHolder);
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+        if (ids.size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " generated ids but got " + ids.size());
+        }
+        changeFeed.publish(ids.stream().map(ChangeEvent::patientSaved).toList());
+        return ids;
+    }
+
+    private record Pending(long line, PatientImportRow row) {}
+
+    private record CsvColumns(int name, int email, int phone, int address) {
+
+        static CsvColumns of(List<String> header) {
+            List<String> names = header.stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+            if (!names.containsAll(List.of("name", "email", "phone"))) {
+                throw new IllegalArgumentException("CSV header must contain name, email and phone columns");
+            }
+            return new CsvColumns(names.indexOf("name"), names.indexOf("email"), names.indexOf("phone"),
+                names.indexOf("address"));
+        }
+
+        PatientImportRow row(List<String> fields) {
+            return new PatientImportRow(field(fields, name), field(fields, email), field(fields, phone),
+                field(fields, address));
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    /** Counters and the current batch of one import. */
+    private final class Run {
+
+        private final long startedAt = System.nanoTime();
+
+        private final int batchSize;
+
+        private final List<Pending> batch;
+
+        private final Set<String> seenEmails = new HashSet<>();
+
+        private final Set<String> seenPhones = new HashSet<>();
+
+        private final List<PatientImportReport.RowError> errors = new ArrayList<>();
+
+        private long rows;
+
+        private long imported;
+
+        private long duplicates;
+
+        private long failed;
+
+        private boolean errorsTruncated;
+
+        private List<Pending> unsettled;
+
+        Run(int batchSize) {
+            this.batchSize = batchSize;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        void accept(long line, PatientImportRow row) {
+            if (seenEmails.contains(row.email()) || seenPhones.contains(row.phone())) {
+                duplicate(line, "Duplicate email or phone within the import");
+                return;
+            }
+            seenEmails.add(row.email());
+            seenPhones.add(row.phone());
+            batch.add(new Pending(line, row));
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String error) {
+            failed++;
+            record(line, error);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            unsettled = batch;
+            try {
+                write();
+            } catch (RuntimeException e) {
+                log.warn("Failed to import a batch of {} patients", batch.size(), e);
+                String cause = e instanceof DataAccessException dataAccess
+                    ? dataAccess.getMostSpecificCause().getMessage() : e.getMessage();
+                for (Pending pending : unsettled) {
+                    reject(pending.line(), "Batch failed: " + cause);
+                    // Nothing was written, so a later row with the same email or phone is not a duplicate
+                    seenEmails.remove(pending.row().email());
+                    seenPhones.remove(pending.row().phone());
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+
+        private void write() {
+            Set<String> emails = new HashSet<>();
+            Set<String> phones = new HashSet<>();
+            batch.forEach(pending -> {
+                emails.add(pending.row().email());
+                phones.add(pending.row().phone());
+            });
+            Set<String> knownEmails = existing("email", emails);
+            Set<String> knownPhones = existing("phone", phones);
+
+            List<Pending> fresh = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                if (knownEmails.contains(pending.row().email())) {
+                    duplicate(pending.line(), "Email already registered");
+                } else if (knownPhones.contains(pending.row().phone())) {
+                    duplicate(pending.line(), "Phone already registered");
+                } else {
+                    fresh.add(pending);
+                }
+            }
+            unsettled = fresh;
+            if (fresh.isEmpty()) {
+                return;
+            }
+
+            LocalDateTime createdAt = LocalDateTime.now();
+            List<Long> ids = transactionTemplate.execute(status -> insert(fresh, Timestamp.valueOf(createdAt)));
+            unsettled = List.of();
+            List<PatientView> views = new ArrayList<>(fresh.size());
+            for (int i = 0; i < fresh.size(); i++) {
+                PatientImportRow row = fresh.get(i).row();
+                views.add(new PatientView(ids.get(i), row.name(), row.email(), row.phone(),
+                    row.address() != null ? row.address() : "", createdAt));
+            }
+            imported += fresh.size();
+            patientService.patientsImported(views);
+        }
+
+        private void duplicate(long line, String error) {
+            duplicates++;
+            record(line, error);
+        }
+
+        private void record(long line, String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new PatientImportReport.RowError(line, error));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        PatientImportReport report() {
+            long elapsedNanos = System.nanoTime() - startedAt;
+            double seconds = elapsedNanos / 1_000_000_000.0;
+            return new PatientImportReport(rows, imported, duplicates, failed, List.copyOf(errors), errorsTruncated,
+                elapsedNanos / 1_000_000, seconds > 0 ? Math.round(rows / seconds * 10) / 10.0 : rows);
+        }
+    }
+}
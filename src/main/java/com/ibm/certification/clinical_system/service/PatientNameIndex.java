@@ -0,0 +1,363 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.dto.PatientView;
+import com.ibm.certification.clinical_system.repository.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over accent- and case-folded patient names, so a
+ * substring search intersects a few sorted posting lists instead of scanning the
+ * patients table with a leading-wildcard LIKE. Each patient gets a dense
+ * int slot that posting lists refer to, and names are indexed with a leading
+ * space, which makes word-prefix matches their own trigram lookup. It loads
+ * after {@link ChangeFeed} has fixed its starting position, so no patient
+ * saved elsewhere during the load is missed.
+ */
+@Component
+@DependsOn("changeFeed")
+public class PatientNameIndex {
+
+    private static final int LOAD_PAGE_SIZE = 5_000;
+
+    private static final int WORD_PREFIX = 2;
+
+    private static final int SUBSTRING = 3;
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            slotsById.clear();
+            freeSlots.clear();
+            postings.clear();
+            long afterId = 0L;
+            List<PatientView> page;
+            do {
+                page = patientRepository.findPageAfter(afterId, Limit.of(LOAD_PAGE_SIZE));
+                for (PatientView patient : page) {
+                    add(patient);
+                    afterId = patient.id();
+                }
+            } while (page.size() == LOAD_PAGE_SIZE);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(PatientView patient) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(patient.id());
+            add(patient);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long patientId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(patientId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Patients whose folded name contains the folded query, best matches first:
+     * exact name, then name prefix, then word prefix, then any substring. Plain
+     * substring matches are only collected when the prefix matches do not
+     * already fill the limit.
+     */
+    public List<PatientView> search(String name, int limit) {
+        String query = fold(name);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        Matches best = new Matches(query, limit);
+        lock.readLock().lock();
+        try {
+            if (query.length() >= 2) {
+                best.offerAll(candidates(" " + query), 0, WORD_PREFIX);
+            }
+            if (!best.isFull()) {
+                int minRank = query.length() >= 2 ? SUBSTRING : 0;
+                if (query.length() >= 3) {
+                    best.offerAll(candidates(query), minRank, SUBSTRING);
+                } else {
+                    for (Entry entry : entries) {
+                        if (entry != null) {
+                            best.offer(entry, minRank, SUBSTRING);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return best.sorted();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String fold(String name) {
+        if (name == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        String stripped = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private int[] candidates(String query) {
+        long[] trigrams = trigrams(query);
+        if (trigrams.length == 0) {
+            return new int[0];
+        }
+        PostingList[] lists = new PostingList[trigrams.length];
+        for (int i = 0; i < trigrams.length; i++) {
+            lists[i] = postings.get(trigrams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+
+        int[] slots = lists[0].toArray();
+        int count = slots.length;
+        for (int j = 1; j < lists.length && count > 0; j++) {
+            count = lists[j].retainAll(slots, count);
+        }
+        return Arrays.copyOf(slots, count);
+    }
+
+    private void add(PatientView patient) {
+        Entry entry = new Entry(patient, fold(patient.name()));
+        Integer free = freeSlots.poll();
+        int slot;
+        if (free != null) {
+            slot = free;
+            entries.set(slot, entry);
+        } else {
+            slot = entries.size();
+            entries.add(entry);
+        }
+        slotsById.put(patient.id(), slot);
+        for (long trigram : trigrams(" " + entry.folded())) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(slot);
+        }
+    }
+
+    private void removeEntry(Long patientId) {
+        Integer slot = slotsById.remove(patientId);
+        if (slot == null) {
+            return;
+        }
+        Entry previous = entries.set(slot, null);
+        freeSlots.push(slot);
+        for (long trigram : trigrams(" " + previous.folded())) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(slot) && list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    private static long[] trigrams(String folded) {
+        if (folded.length() < 3) {
+            return new long[0];
+        }
+        long[] trigrams = new long[folded.length() - 2];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = ((long) folded.charAt(i) << 32) | ((long) folded.charAt(i + 1) << 16) | folded.charAt(i + 2);
+        }
+        return Arrays.stream(trigrams).distinct().toArray();
+    }
+
+    private record Entry(PatientView view, String folded) {}
+
+    private record Match(Entry entry, int rank) {}
+
+    /**
+     * Bounded worst-first heap of the best {@code limit} matches; candidates
+     * that cannot beat the current worst are rejected without allocating.
+     */
+    private final class Matches {
+        private final String query;
+        private final String wordQuery;
+        private final int limit;
+        private final PriorityQueue<Match> heap;
+
+        Matches(String query, int limit) {
+            this.query = query;
+            this.wordQuery = " " + query;
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(limit + 1, (a, b) -> compare(b.rank(), b.entry(), a));
+        }
+
+        boolean isFull() {
+            return heap.size() >= limit;
+        }
+
+        void offerAll(int[] slots, int minRank, int maxRank) {
+            for (int slot : slots) {
+                offer(entries.get(slot), minRank, maxRank);
+            }
+        }
+
+        void offer(Entry entry, int minRank, int maxRank) {
+            String folded = entry.folded();
+            int rank;
+            if (folded.startsWith(query)) {
+                rank = folded.length() == query.length() ? 0 : 1;
+            } else if (folded.contains(wordQuery)) {
+                rank = WORD_PREFIX;
+            } else if (folded.contains(query)) {
+                rank = SUBSTRING;
+            } else {
+                return;
+            }
+            if (rank < minRank || rank > maxRank) {
+                return;
+            }
+            if (isFull()) {
+                if (compare(rank, entry, heap.peek()) >= 0) {
+                    return;
+                }
+                heap.poll();
+            }
+            heap.add(new Match(entry, rank));
+        }
+
+        List<PatientView> sorted() {
+            List<Match> matches = new ArrayList<>(heap);
+            matches.sort((a, b) -> compare(a.rank(), a.entry(), b));
+            return matches.stream().map(match -> match.entry().view()).toList();
+        }
+
+        private static int compare(int rank, Entry entry, Match other) {
+            if (rank != other.rank()) {
+                return Integer.compare(rank, other.rank());
+            }
+            int length = entry.folded().length();
+            int otherLength = other.entry().folded().length();
+            if (length != otherLength) {
+                return Integer.compare(length, otherLength);
+            }
+            return Long.compare(entry.view().id(), other.entry().view().id());
+        }
+    }
+
+    static final class PostingList {
+        private int[] slots = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(slots, size);
+        }
+
+        /**
+         * Keeps the first {@code count} sorted candidates that are also in this
+         * list, compacted to the front, and returns how many remain. Gallops
+         * forward from the previous hit, so similar-sized lists merge in close
+         * to linear time.
+         */
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int candidate = candidates[i];
+                int step = 1;
+                int to = from;
+                while (to < size && slots[to] < candidate) {
+                    from = to + 1;
+                    to += step;
+                    step <<= 1;
+                }
+                int found = Arrays.binarySearch(slots, from, Math.min(to + 1, size), candidate);
+                if (found >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            return kept;
+        }
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            if (size == 0 || slots[size - 1] < slot) {
+                slots[size++] = slot;
+                return;
+            }
+            int i = Arrays.binarySearch(slots, 0, size, slot);
+            if (i >= 0) {
+                return;
+            }
+            int insertAt = -i - 1;
+            System.arraycopy(slots, insertAt, slots, insertAt + 1, size - insertAt);
+            slots[insertAt] = slot;
+            size++;
+        }
+
+        boolean remove(int slot) {
+            int i = Arrays.binarySearch(slots, 0, size, slot);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+            size--;
+            return true;
+        }
+    }
+}
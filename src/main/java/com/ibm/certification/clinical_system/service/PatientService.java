@@ -1,55 +1,204 @@
 package com.ibm.certification.clinical_system.service;
 
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.PatientView;
+import com.ibm.certification.clinical_system.entity.ChangeType;
 import com.ibm.certification.clinical_system.entity.Patient;
 import com.ibm.certification.clinical_system.repository.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class PatientService {
     
+    private static final int MAX_CACHED_LOOKUPS = 50_000;
+    
+    private static final Duration LOOKUP_TTL = Duration.ofMinutes(10);
+    
+    private final ExpiringCache<String, Optional<Long>> emailLookups = new ExpiringCache<>(MAX_CACHED_LOOKUPS, LOOKUP_TTL);
+    
+    private final ExpiringCache<String, List<Long>> phoneLookups = new ExpiringCache<>(MAX_CACHED_LOOKUPS, LOOKUP_TTL);
+    
     @Autowired
     private PatientRepository patientRepository;
     
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    @Autowired
+    private PatientNameIndex patientNameIndex;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @PostConstruct
+    void init() {
+        emailLookups.registerMetrics(meterRegistry, "patient-email-lookups");
+        phoneLookups.registerMetrics(meterRegistry, "patient-phone-lookups");
+        changeFeed.addListener(this::applyRemoteChange);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<PatientView> getPatients(ContinuationToken after, int limit) {
+        List<PatientView> fetched = patientRepository.findPageAfter(afterId(after), Limit.of(limit + 1));
+        return CursorPage.of(fetched, limit, view -> ContinuationToken.of(view.id()));
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamPatients(long afterId, Consumer<? super PatientView> sink) {
+        try (Stream<PatientView> patients = patientRepository.streamAfter(afterId)) {
+            patients.forEach(sink);
+        }
     }
     
+    @Transactional(readOnly = true)
     public Optional<Patient> getPatientById(Long id) {
         return patientRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
+    public List<Patient> getPatientsByIds(Collection<Long> ids) {
+        return patientRepository.findAllById(ids);
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Patient> getPatientByEmailOrPhone(String email, String phone) {
-        if (email != null && !email.isEmpty()) {
-            Optional<Patient> patientByEmail = patientRepository.findByEmail(email);
-            if (patientByEmail.isPresent()) {
-                return patientByEmail;
-            }
+        Optional<Long> patientId = idByEmail(email);
+        if (patientId.isEmpty()) {
+            patientId = idsByPhone(phone).stream().findFirst();
         }
-        
-        if (phone != null && !phone.isEmpty()) {
-            return patientRepository.findByPhone(phone);
-        }
-        
-        return Optional.empty();
+        return patientId.flatMap(patientRepository::findById);
+    }
+    
+    @Transactional(readOnly = true)
+    public Set<Long> getPatientIdsByEmailOrPhone(String email, String phone) {
+        Set<Long> patientIds = new LinkedHashSet<>();
+        idByEmail(email).ifPresent(patientIds::add);
+        patientIds.addAll(idsByPhone(phone));
+        return patientIds;
     }
     
+    @Transactional
     public Patient savePatient(Patient patient) {
-        return patientRepository.save(patient);
+        boolean existing = patient.getId() != null;
+        Patient savedPatient = patientRepository.save(patient);
+        changeFeed.publish(ChangeEvent.patientSaved(savedPatient));
+        PatientView view = PatientView.of(savedPatient);
+        ChangeFeed.afterCommit(() -> invalidateLookups(view, existing));
+        return savedPatient;
     }
     
-    public List<Patient> searchPatientsByName(String name) {
-        return patientRepository.findByNameContainingIgnoreCase(name);
+    void applyRemoteChange(ChangeEvent event) {
+        if (event.type() != ChangeType.PATIENT_SAVED) {
+            return;
+        }
+        entityManagerFactory.getCache().evict(Patient.class, event.entityId());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache()
+            .evictQueryRegion(PatientRepository.EMAIL_LOOKUP_REGION);
+        patientRepository.findById(event.entityId())
+            .ifPresent(patient -> invalidateLookups(PatientView.of(patient), true));
     }
     
+    /**
+     * Brings the in-memory lookups up to date with patients that were inserted
+     * directly over JDBC by {@link PatientImportService}.
+     */
+    void patientsImported(List<PatientView> patients) {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache()
+            .evictQueryRegion(PatientRepository.EMAIL_LOOKUP_REGION);
+        patients.forEach(patient -> invalidateLookups(patient, false));
+    }
+    
+    private void invalidateLookups(PatientView patient, boolean existing) {
+        patientNameIndex.put(patient);
+        
+        emailLookups.invalidate(normalizeEmail(patient.email()));
+        phoneLookups.invalidate(normalizePhone(patient.phone()));
+        if (existing) {
+            emailLookups.invalidateValues(id -> id.isPresent() && id.get().equals(patient.id()));
+            phoneLookups.invalidateValues(ids -> ids.contains(patient.id()));
+        }
+    }
+    
+    public List<PatientView> searchPatientsByName(String name, int limit) {
+        return patientNameIndex.search(name, limit);
+    }
+    
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
-        return patientRepository.findByEmail(email).isPresent();
+        if (email == null || email.isBlank()) {
+            return false;
+        }
+        Optional<Long> cached = emailLookups.getIfPresent(normalizeEmail(email));
+        if (cached != null) {
+            return cached.isPresent();
+        }
+        return patientRepository.countByEmail(normalizeEmail(email)) > 0;
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByPhone(String phone) {
-        return patientRepository.findByPhone(phone).isPresent();
+        if (phone == null || phone.isBlank()) {
+            return false;
+        }
+        List<Long> cached = phoneLookups.getIfPresent(normalizePhone(phone));
+        if (cached != null) {
+            return !cached.isEmpty();
+        }
+        return patientRepository.countByPhone(normalizePhone(phone)) > 0;
+    }
+    
+    public Map<String, Object> getLookupCacheStats() {
+        return Map.of(
+            "email", Map.of("hits", emailLookups.hits(), "misses", emailLookups.misses(), "size", emailLookups.size()),
+            "phone", Map.of("hits", phoneLookups.hits(), "misses", phoneLookups.misses(), "size", phoneLookups.size())
+        );
+    }
+    
+    private Optional<Long> idByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return Optional.empty();
+        }
+        return emailLookups.get(normalizeEmail(email), patientRepository::findIdByEmail);
+    }
+    
+    private List<Long> idsByPhone(String phone) {
+        if (phone == null || phone.isBlank()) {
+            return List.of();
+        }
+        return phoneLookups.get(normalizePhone(phone), key -> List.copyOf(patientRepository.findIdsByPhone(key)));
+    }
+    
+    static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    static String normalizePhone(String phone) {
+        return phone.trim();
+    }
+    
+    private static long afterId(ContinuationToken after) {
+        return after != null ? after.idOrZero() : 0L;
     }
 }
\ No newline at end of file
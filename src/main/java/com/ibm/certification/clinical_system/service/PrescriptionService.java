@@ -1,14 +1,23 @@
 package com.ibm.certification.clinical_system.service;
 
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.DoctorPrescriptionView;
+import com.ibm.certification.clinical_system.dto.PatientPrescriptionView;
+import com.ibm.certification.clinical_system.dto.PrescriptionView;
 import com.ibm.certification.clinical_system.entity.Doctor;
 import com.ibm.certification.clinical_system.entity.Patient;
 import com.ibm.certification.clinical_system.entity.Prescription;
 import com.ibm.certification.clinical_system.repository.PrescriptionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class PrescriptionService {
@@ -25,47 +34,98 @@ public class PrescriptionService {
     @Autowired
     private TokenService tokenService;
     
-    public List<Prescription> getAllPrescriptions() {
-        return prescriptionRepository.findAll();
+    @Autowired
+    private PrescriptionWriteQueue writeQueue;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Transactional(readOnly = true)
+    public CursorPage<PrescriptionView> getPrescriptions(ContinuationToken after, int limit) {
+        List<PrescriptionView> fetched = prescriptionRepository.findPageAfter(afterId(after), Limit.of(limit + 1));
+        return CursorPage.of(fetched, limit, view -> ContinuationToken.of(view.id()));
     }
     
+    @Transactional(readOnly = true)
+    public void streamPrescriptions(long afterId, Consumer<? super PrescriptionView> sink) {
+        try (Stream<PrescriptionView> prescriptions = prescriptionRepository.streamAfter(afterId)) {
+            prescriptions.forEach(sink);
+        }
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Prescription> getPrescriptionById(Long id) {
         return prescriptionRepository.findById(id);
     }
     
+    @Transactional
     public Prescription savePrescription(String authToken, Long doctorId, Long patientId, 
                                        String medication, String dosage, String instructions) {
+        Prescription saved = prescriptionRepository.save(
+            validatedPrescription(authToken, doctorId, patientId, medication, dosage, instructions));
+        changeFeed.publish(ChangeEvent.prescriptionSaved(saved.getId(), saved));
+        return saved;
+    }
+    
+    public QueuedPrescription submitPrescription(String authToken, Long doctorId, Long patientId,
+                                                 String medication, String dosage, String instructions) {
+        if (!writeQueue.isEnabled()) {
+            throw new RuntimeException("Asynchronous prescription writes are disabled");
+        }
+        return writeQueue.submit(
+            validatedPrescription(authToken, doctorId, patientId, medication, dosage, instructions));
+    }
+    
+    public Optional<QueuedPrescription> getQueuedPrescription(String ticket) {
+        return Optional.ofNullable(writeQueue.getQueued(ticket));
+    }
+    
+    private Prescription validatedPrescription(String authToken, Long doctorId, Long patientId,
+                                               String medication, String dosage, String instructions) {
         if (!tokenService.validateToken(authToken)) {
             throw new RuntimeException("Invalid or expired token");
         }
+        if (medication == null || medication.isBlank() || dosage == null || dosage.isBlank()) {
+            throw new RuntimeException("Medication and dosage are required");
+        }
         
         Optional<Doctor> doctorOpt = doctorService.getDoctorById(doctorId);
         Optional<Patient> patientOpt = patientService.getPatientById(patientId);
         
         if (doctorOpt.isPresent() && patientOpt.isPresent()) {
-            Prescription prescription = new Prescription(
+            return new Prescription(
                 doctorOpt.get(),
                 patientOpt.get(),
                 medication,
                 dosage,
                 instructions
             );
-            
-            return prescriptionRepository.save(prescription);
         } else {
             throw new RuntimeException("Doctor or Patient not found");
         }
     }
     
-    public List<Prescription> getPrescriptionsByDoctor(Long doctorId) {
-        return prescriptionRepository.findByDoctorId(doctorId);
+    @Transactional(readOnly = true)
+    public CursorPage<DoctorPrescriptionView> getPrescriptionsByDoctor(Long doctorId, ContinuationToken after, int limit) {
+        List<DoctorPrescriptionView> fetched = prescriptionRepository.findViewsByDoctorId(
+            doctorId, afterId(after), Limit.of(limit + 1));
+        return CursorPage.of(fetched, limit, view -> ContinuationToken.of(view.id()));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<PatientPrescriptionView> getPrescriptionsByPatient(Long patientId, ContinuationToken after, int limit) {
+        List<PatientPrescriptionView> fetched = prescriptionRepository.findViewsByPatientId(
+            patientId, afterId(after), Limit.of(limit + 1));
+        return CursorPage.of(fetched, limit, view -> ContinuationToken.of(view.id()));
     }
     
-    public List<Prescription> getPrescriptionsByPatient(Long patientId) {
-        return prescriptionRepository.findByPatientId(patientId);
+    private static long afterId(ContinuationToken after) {
+        return after != null ? after.idOrZero() : 0L;
     }
     
+    @Transactional
     public void deletePrescription(Long id) {
         prescriptionRepository.deleteById(id);
+        changeFeed.publish(ChangeEvent.prescriptionDeleted(id));
     }
 }
\ No newline at end of file
@@ -0,0 +1,218 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Prescription;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for prescriptions. Callers enqueue already validated
+ * prescriptions and get a ticket whose future completes with the generated id
+ * once the row is committed. A single writer thread drains the queue and
+ * group-commits up to {@code batch-size} rows in one transaction, waiting at
+ * most {@code max-delay-ms} after the first row of a batch for more to arrive.
+ * The queue is bounded; when it is full, {@link #submit} fails fast with
+ * {@link WriteQueueFullException} rather than blocking the caller.
+ */
+@Component
+public class PrescriptionWriteQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionWriteQueue.class);
+
+    private static final String INSERT_SQL = "INSERT INTO prescriptions "
+        + "(doctor_id, patient_id, medication, dosage, instructions, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Value("${clinic.prescriptions.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${clinic.prescriptions.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${clinic.prescriptions.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${clinic.prescriptions.write-behind.max-delay-ms:20}")
+    private long maxDelayMillis;
+
+    private final ExpiringCache<String, QueuedPrescription> tickets = new ExpiringCache<>(100_000, Duration.ofMinutes(15));
+
+    private BlockingQueue<Pending> queue;
+
+    private DistributionSummary batchSizes;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("clinic.prescriptions.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        batchSizes = DistributionSummary.builder("clinic.prescriptions.batch.size").register(meterRegistry);
+        running = true;
+        writer = new Thread(this::drain, "prescription-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting new work and waits for the writer to commit everything
+     * that was already queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public QueuedPrescription submit(Prescription prescription) {
+        if (!running) {
+            throw new RuntimeException("Asynchronous prescription writes are disabled");
+        }
+        QueuedPrescription queued = new QueuedPrescription(UUID.randomUUID().toString(), new CompletableFuture<>());
+        Pending pending = new Pending(prescription, LocalDateTime.now(), queued.committed());
+        if (!queue.offer(pending)) {
+            throw new WriteQueueFullException("Prescription queue is full, retry later");
+        }
+        // stop() may have run since the check; withdraw the row unless the writer already took it
+        if (!running && queue.remove(pending)) {
+            throw new RuntimeException("Asynchronous prescription writes are disabled");
+        }
+        tickets.put(queued.ticket(), queued);
+        return queued;
+    }
+
+    public QueuedPrescription getQueued(String ticket) {
+        return tickets.getIfPresent(ticket);
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = running ? queue.poll(1, TimeUnit.SECONDS) : queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = running && remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts a writer parked on an empty queue; the loop condition decides whether to go on
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> insert(batch));
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} queued prescriptions", batch.size(), e);
+            batch.forEach(pending -> pending.committed().completeExceptionally(e));
+            return;
+        }
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).committed().complete(ids.get(i));
+        }
+    }
+
+    private List<Long> insert(List<Pending> batch) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    Pending pending = batch.get(i);
+                    Prescription prescription = pending.prescription();
+                    statement.setLong(1, prescription.getDoctor().getId());
+                    statement.setLong(2, prescription.getPatient().getId());
+                    statement.setString(3, prescription.getMedication());
+                    statement.setString(4, prescription.getDosage());
+                    statement.setString(5, prescription.getInstructions());
+                    statement.setTimestamp(6, Timestamp.valueOf(pending.createdAt()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            }, keyHolder);
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+        if (ids.size() != batch.size()) {
+            throw new IllegalStateException("Expected " + batch.size() + " generated ids but got " + ids.size());
+        }
+
+        List<ChangeEvent> events = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            events.add(ChangeEvent.prescriptionSaved(ids.get(i), batch.get(i).prescription()));
+        }
+        changeFeed.publish(events);
+        return ids;
+    }
+
+    private record Pending(Prescription prescription, LocalDateTime createdAt, CompletableFuture<Long> committed) {}
+}
@@ -0,0 +1,10 @@
+package com.ibm.certification.clinical_system.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A prescription accepted by {@link PrescriptionWriteQueue}; {@code committed}
+ * completes with the generated id once the row is durable.
+ */
+public record QueuedPrescription(String ticket, CompletableFuture<Long> committed) {
+}
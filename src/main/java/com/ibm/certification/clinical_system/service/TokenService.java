@@ -1,26 +1,62 @@
 package com.ibm.certification.clinical_system.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class TokenService {
     
+    private static final int MAX_VERIFIED_TOKENS = 10_000;
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private long jwtExpiration;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Counter validTokens;
+    
+    private Counter invalidTokens;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    private final ConcurrentHashMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens.clear();
+        validTokens = meterRegistry.counter("clinic.tokens.validations", "result", "valid");
+        invalidTokens = meterRegistry.counter("clinic.tokens.validations", "result", "invalid");
+    }
+    
     public String generateJWTToken(String email, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("email", email);
@@ -31,32 +67,63 @@ public class TokenService {
                 .setSubject(email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
+            verify(token);
+            validTokens.increment();
             return true;
         } catch (Exception e) {
+            invalidTokens.increment();
             return false;
         }
     }
     
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return verify(token).subject();
     }
     
     public SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
-}
\ No newline at end of file
+    
+    private VerifiedToken verify(String token) {
+        String key = hash(token);
+        VerifiedToken verified = verifiedTokens.get(key);
+        long now = System.currentTimeMillis();
+        if (verified != null) {
+            if (now < verified.expiresAt()) {
+                return verified;
+            }
+            verifiedTokens.remove(key, verified);
+        }
+        
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        verified = new VerifiedToken(claims.getSubject(), expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+        if (expiration != null) {
+            if (verifiedTokens.size() >= MAX_VERIFIED_TOKENS) {
+                verifiedTokens.values().removeIf(entry -> entry.expiresAt() <= now);
+                if (verifiedTokens.size() >= MAX_VERIFIED_TOKENS) {
+                    verifiedTokens.clear();
+                }
+            }
+            verifiedTokens.put(key, verified);
+        }
+        return verified;
+    }
+    
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private record VerifiedToken(String subject, long expiresAt) {}
+}
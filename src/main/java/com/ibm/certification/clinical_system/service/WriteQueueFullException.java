@@ -0,0 +1,8 @@
+package com.ibm.certification.clinical_system.service;
+
+public class WriteQueueFullException extends RuntimeException {
+
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
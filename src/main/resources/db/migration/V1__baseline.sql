@@ -0,0 +1,74 @@
+-- Schema as created by ddl-auto=update before migrations existed. Databases
+-- from that time are baselined at this version instead of running it (see
+-- README, "Fast startup"); later versions bring them up to date. Constraint
+-- names are the ones Hibernate generates, so ddl-auto=update in development
+-- adds no duplicates.
+
+create table appointments (
+    appointment_time datetime(6) not null,
+    created_at datetime(6) not null,
+    doctor_id bigint not null,
+    id bigint not null auto_increment,
+    patient_id bigint not null,
+    notes TEXT,
+    status enum ('CANCELLED','COMPLETED','CONFIRMED','NO_SHOW','SCHEDULED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table doctors (
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    available_times TEXT,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    phone varchar(255) not null,
+    specialty varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table patients (
+    created_at datetime(6) not null,
+    id bigint not null auto_increment,
+    address TEXT,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    phone varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table prescriptions (
+    created_at datetime(6) not null,
+    doctor_id bigint not null,
+    id bigint not null auto_increment,
+    patient_id bigint not null,
+    dosage varchar(255) not null,
+    instructions TEXT,
+    medication varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table doctors
+   add constraint UKcaifv0va46t2mu85cg5afmayf unique (email);
+
+alter table patients
+   add constraint UKa370hmxgv0l5c9panryr1ji7d unique (email);
+
+alter table appointments
+   add constraint FKmujeo4tymoo98cmf7uj3vsv76
+   foreign key (doctor_id)
+   references doctors (id);
+
+alter table appointments
+   add constraint FK8exap5wmg8kmb1g1rx3by21yt
+   foreign key (patient_id)
+   references patients (id);
+
+alter table prescriptions
+   add constraint FK24chc88e4so7cd6melh11rv6
+   foreign key (doctor_id)
+   references doctors (id);
+
+alter table prescriptions
+   add constraint FKqydyol76jn1o37k1bdbkjgq74
+   foreign key (patient_id)
+   references patients (id);
@@ -0,0 +1,66 @@
+-- Tables, indexes and id generation added on top of the ddl-auto=update schema:
+-- sequence-allocated appointment ids, the appointment archive, the change-feed
+-- outbox and the lookup indexes.
+
+-- Appointment ids come from a pooled table sequence instead of auto_increment.
+-- The first value handed out is next_val - 49, so start above every existing id.
+alter table appointments modify id bigint not null;
+
+create table appointments_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into appointments_seq select coalesce(max(id), 0) + 51 from appointments;
+
+create index idx_appointments_doctor_time
+   on appointments (doctor_id, appointment_time);
+
+create index idx_appointments_time
+   on appointments (appointment_time);
+
+create index idx_patients_phone
+   on patients (phone);
+
+create table appointments_archive (
+    appointment_time datetime(6) not null,
+    archived_at datetime(6) not null,
+    created_at datetime(6) not null,
+    doctor_id bigint not null,
+    id bigint not null,
+    patient_id bigint not null,
+    notes TEXT,
+    status enum ('CANCELLED','COMPLETED','CONFIRMED','NO_SHOW','SCHEDULED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_appointments_archive_patient_time
+   on appointments_archive (patient_id, appointment_time);
+
+create index idx_appointments_archive_doctor_time
+   on appointments_archive (doctor_id, appointment_time);
+
+alter table appointments_archive
+   add constraint FKft3kme19buh3o8mg1dyvwi8xs
+   foreign key (doctor_id)
+   references doctors (id);
+
+alter table appointments_archive
+   add constraint FKcct254xe5g3bc82qx33u6240u
+   foreign key (patient_id)
+   references patients (id);
+
+create table outbox_events (
+    occupies_slot bit not null,
+    created_at datetime(6) not null,
+    doctor_id bigint,
+    entity_id bigint not null,
+    id bigint not null auto_increment,
+    patient_id bigint,
+    slot_time datetime(6),
+    origin varchar(36) not null,
+    type enum ('APPOINTMENT_ARCHIVED','APPOINTMENT_DELETED','APPOINTMENT_SAVED','DOCTOR_SAVED','PATIENT_SAVED','PRESCRIPTION_DELETED','PRESCRIPTION_SAVED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_outbox_events_created_at
+   on outbox_events (created_at);
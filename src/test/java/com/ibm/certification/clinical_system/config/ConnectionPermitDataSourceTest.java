@@ -0,0 +1,46 @@
+package com.ibm.certification.clinical_system.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConnectionPermitDataSourceTest {
+
+    @Test
+    void permitIsHeldUntilTheConnectionIsClosed() throws SQLException {
+        DataSource pool = mock(DataSource.class);
+        Connection pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(pool, 1, 50);
+
+        Connection connection = dataSource.getConnection();
+        assertThat(dataSource.availablePermits()).isZero();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        connection.close();
+        connection.close();
+        verify(pooled, times(2)).close();
+        assertThat(dataSource.availablePermits()).isEqualTo(1);
+        dataSource.getConnection().close();
+    }
+
+    @Test
+    void permitIsReturnedWhenThePoolFails() throws SQLException {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConnectionPermitDataSource dataSource = new ConnectionPermitDataSource(pool, 2, 50);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.availablePermits()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,123 @@
+package com.ibm.certification.clinical_system.config;
+
+import com.ibm.certification.clinical_system.dto.PatientView;
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.service.ChangeFeed;
+import com.ibm.certification.clinical_system.service.PatientService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1;MODE=MySQL",
+    "clinic.datasource.replica.url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1;MODE=MySQL",
+    "clinic.datasource.replica.username=sa",
+    "clinic.datasource.replica.driver-class-name=org.h2.Driver",
+    "clinic.datasource.replica.monitor-interval-ms=3600000"
+})
+@ActiveProfiles("h2")
+class ReadReplicaRoutingTest {
+
+    private static final String REPLICA_ONLY_EMAIL = "replica.only@email.com";
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        // The replica only needs what the probe query and the lag check read
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS patients (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+            + "email VARCHAR(255), phone VARCHAR(255), address TEXT, created_at TIMESTAMP)");
+        replica.execute("CREATE TABLE IF NOT EXISTS outbox_events (id BIGINT PRIMARY KEY)");
+        replica.update("MERGE INTO patients (id, email) KEY (id) VALUES (1, ?)", REPLICA_ONLY_EMAIL);
+    }
+
+    @AfterEach
+    void evictPatients() {
+        // Test contexts share the second-level cache, and these ids exist in the other contexts' database too
+        entityManagerFactory.getCache().evict(Patient.class);
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaOnceItHasCaughtUpWithTheLastWrite() {
+        savePatient("first");
+        replicaLagMonitor.check();
+        assertThat(readsFromReplica()).isFalse();
+
+        catchUpReplica();
+        replicaLagMonitor.check();
+        assertThat(readsFromReplica()).isTrue();
+
+        savePatient("second");
+        replicaLagMonitor.check();
+        assertThat(readsFromReplica()).isFalse();
+
+        catchUpReplica();
+        replicaLagMonitor.check();
+        assertThat(readsFromReplica()).isTrue();
+        assertThat(patientService.existsByEmail("second@email.com")).isFalse();
+    }
+
+    @Test
+    void changesFromOtherNodesAreReloadedFromThePrimary() {
+        Long patientId = savePatient("remote").getId();
+        catchUpReplica();
+        replicaLagMonitor.check();
+        assertThat(readsFromReplica()).isTrue();
+
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        primary.update("UPDATE patients SET name = 'Renamed Elsewhere' WHERE id = ?", patientId);
+        replica.update("MERGE INTO patients (id, name, email, phone, created_at) KEY (id) "
+            + "VALUES (?, 'Not Yet Replicated', ?, '+1-555-0000', NOW())", patientId, "stale" + patientId + "@email.com");
+        primary.update("INSERT INTO outbox_events (type, entity_id, occupies_slot, origin, created_at) "
+            + "VALUES ('PATIENT_SAVED', ?, FALSE, 'other-node', NOW())", patientId);
+        changeFeed.poll();
+
+        assertThat(patientService.searchPatientsByName("Renamed Elsewhere", 10))
+            .extracting(PatientView::id).containsExactly(patientId);
+        assertThat(patientService.searchPatientsByName("Not Yet Replicated", 10)).isEmpty();
+    }
+
+    private Patient savePatient(String name) {
+        return patientService.savePatient(new Patient(name, name + "@email.com", "+1-555-" + System.nanoTime() % 10_000, null));
+    }
+
+    private boolean readsFromReplica() {
+        return patientService.existsByEmail(REPLICA_ONLY_EMAIL);
+    }
+
+    private void catchUpReplica() {
+        Long mark = new JdbcTemplate(primaryDataSource).queryForObject("SELECT MAX(id) FROM outbox_events", Long.class);
+        replica.update("MERGE INTO outbox_events (id) KEY (id) VALUES (?)", mark);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ibm.certification.clinical_system.config;
+
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.service.AppointmentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database in the state {@code ddl-auto=update} left it in before
+ * migrations existed, the way the compose {@code migrate} service does: it is
+ * baselined at V1 and the later versions run on top. The prod profile then has
+ * to pass schema validation and hand out appointment ids above the old ones.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + SchemaUpgradeTest.URL,
+    "spring.flyway.enabled=true",
+    "spring.flyway.baseline-on-migrate=true",
+    "spring.flyway.baseline-version=1",
+    "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+@ActiveProfiles({"h2", "prod"})
+class SchemaUpgradeTest {
+
+    static final String URL = "jdbc:h2:mem:upgraded;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void createPreMigrationDatabase() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:db/migration/V1__baseline.sql'");
+            statement.execute("INSERT INTO doctors (id, name, email, specialty, phone, available_times, created_at) "
+                + "VALUES (1, 'Dr. John Smith', 'john.smith@clinic.com', 'Cardiology', '+1-555-0101', NULL, NOW())");
+            statement.execute("INSERT INTO patients (id, name, email, phone, address, created_at) "
+                + "VALUES (1, 'Alice Wilson', 'alice.wilson@email.com', '+1-555-0201', NULL, NOW())");
+            statement.execute("INSERT INTO appointments (doctor_id, patient_id, appointment_time, status, created_at) "
+                + "VALUES (1, 1, '2024-01-15 10:00:00', 'SCHEDULED', NOW()), "
+                + "(1, 1, '2024-01-16 10:00:00', 'SCHEDULED', NOW()), "
+                + "(1, 1, '2024-01-17 10:00:00', 'SCHEDULED', NOW())");
+        }
+    }
+
+    @Test
+    void baselinedDatabaseIsUpgradedAndKeepsItsAppointmentIds() {
+        assertThat(jdbcTemplate.queryForList("SELECT \"type\" FROM \"flyway_schema_history\" "
+                + "WHERE \"version\" IS NOT NULL ORDER BY \"installed_rank\"", String.class))
+            .containsExactly("BASELINE", "SQL");
+
+        Appointment appointment = appointmentService.bookAppointment(1L, 1L, LocalDateTime.of(2031, 2, 3, 10, 0), "");
+
+        assertThat(appointment.getId()).isGreaterThan(3L);
+        assertThat(appointmentService.getAppointmentById(1L)).isPresent();
+    }
+}
@@ -0,0 +1,42 @@
+package com.ibm.certification.clinical_system.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the prod profile against a database built only by the versioned
+ * migrations, so the context loading at all means they match the entities.
+ * The MySQL dialect makes validation expect what the migrations create on
+ * MySQL, such as a table rather than a sequence for appointment ids.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:migrated;DB_CLOSE_DELAY=-1;MODE=MySQL",
+    "spring.flyway.enabled=true",
+    "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"
+})
+@ActiveProfiles({"h2", "prod"})
+class StartupConfigTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void migratedSchemaPassesValidation() {
+        assertThat(context.getEnvironment().getProperty("spring.jpa.hibernate.ddl-auto")).isEqualTo("validate");
+    }
+
+    @Test
+    void onlyWarmUpBeansAreCreatedBeforeFirstUse() {
+        assertThat(context.getBeanFactory().containsSingleton("changeFeed")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("appointmentSlotIndex")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("doctorService")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("exportService")).isFalse();
+        assertThat(context.getBeanFactory().containsSingleton("patientImportService")).isFalse();
+    }
+}
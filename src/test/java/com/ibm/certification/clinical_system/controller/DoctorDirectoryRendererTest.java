@@ -0,0 +1,101 @@
+package com.ibm.certification.clinical_system.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.repository.DoctorRepository;
+import com.ibm.certification.clinical_system.service.AppointmentSlotIndex;
+import com.ibm.certification.clinical_system.service.ChangeFeed;
+import com.ibm.certification.clinical_system.service.DoctorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DoctorDirectoryRendererTest {
+
+    private DoctorService doctorService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findAll()).thenReturn(List.of(
+            doctor(1L, "Dr. Sarah Johnson", "Cardiology"),
+            doctor(2L, "Dr. Michael Chen", "Dermatology")));
+        when(doctorRepository.save(any(Doctor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        doctorService = new DoctorService();
+        ReflectionTestUtils.setField(doctorService, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(doctorService, "slotIndex", new AppointmentSlotIndex());
+        ReflectionTestUtils.setField(doctorService, "changeFeed", mock(ChangeFeed.class));
+        ReflectionTestUtils.invokeMethod(doctorService, "init");
+
+        DoctorDirectoryRenderer renderer = new DoctorDirectoryRenderer();
+        ReflectionTestUtils.setField(renderer, "doctorService", doctorService);
+        ReflectionTestUtils.setField(renderer, "objectMapper", new ObjectMapper().findAndRegisterModules());
+
+        DoctorController controller = new DoctorController();
+        ReflectionTestUtils.setField(controller, "doctorService", doctorService);
+        ReflectionTestUtils.setField(controller, "directoryRenderer", renderer);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void matchingETagIsAnsweredWithNotModifiedUntilADoctorChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/doctors"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[1].name").value("Dr. Michael Chen"))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/api/doctors").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        doctorService.saveDoctor(doctor(3L, "Dr. Emily Rodriguez", "cardiology"));
+
+        mockMvc.perform(get("/api/doctors").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+            .andExpect(jsonPath("$.length()").value(3));
+    }
+
+    @Test
+    void specialtyResponsesShareTheDirectoryETag() throws Exception {
+        String etag = mockMvc.perform(get("/api/doctors/specialty/CARDIOLOGY"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(1))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/doctors/specialty/Oncology"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().json("[]"));
+        mockMvc.perform(get("/api/doctors/specialty/cardiology").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+            .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    private static Doctor doctor(Long id, String name, String specialty) {
+        Doctor doctor = new Doctor(name, name.toLowerCase().replace(' ', '.') + "@clinic.com", specialty,
+            "+1-555-0101", "09:00,10:00");
+        ReflectionTestUtils.setField(doctor, "id", id);
+        return doctor;
+    }
+}
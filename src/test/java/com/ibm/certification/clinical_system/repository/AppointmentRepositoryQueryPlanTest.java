@@ -0,0 +1,89 @@
+package com.ibm.certification.clinical_system.repository;
+
+import com.ibm.certification.clinical_system.dto.DoctorAppointmentView;
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.ibm.certification.clinical_system.repository.AppointmentRepositoryQueryPlanTest$SqlRecorder")
+@ActiveProfiles("h2")
+class AppointmentRepositoryQueryPlanTest {
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctor = entityManager.persist(new Doctor("Dr. John Smith", "john.smith@clinic.com", "Cardiology", "+1-555-0101", null));
+        Patient patient = entityManager.persist(new Patient("Alice Wilson", "alice.wilson@email.com", "+1-555-0201", null));
+        LocalDateTime first = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < 200; i++) {
+            entityManager.persist(new Appointment(doctor, patient, first.plusHours(i * 6L), "Checkup"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        SqlRecorder.statements.clear();
+    }
+
+    @Test
+    void dailyScheduleUsesHalfOpenRange() {
+        LocalDate date = LocalDate.of(2030, 1, 10);
+
+        List<DoctorAppointmentView> appointments = appointmentRepository.findScheduleByDoctorAndTimeBetween(
+            doctor.getId(), date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+
+        assertThat(appointments).hasSize(4)
+            .allMatch(appointment -> appointment.appointmentTime().toLocalDate().equals(date));
+    }
+
+    @Test
+    void dailyScheduleQueryIsServedByDoctorTimeIndex() {
+        LocalDate date = LocalDate.of(2030, 1, 10);
+
+        appointmentRepository.findScheduleByDoctorAndTimeBetween(
+            doctor.getId(), date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+
+        assertThat(SqlRecorder.statements).hasSize(1);
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + SqlRecorder.statements.get(0), String.class,
+            doctor.getId(), date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+
+        assertThat(plan.toUpperCase())
+            .contains("IDX_APPOINTMENTS_DOCTOR_TIME")
+            .containsPattern("DOCTOR_ID = \\?1\\s+AND\\s+\\S*APPOINTMENT_TIME >= \\?2");
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.ibm.certification.clinical_system.repository;
+
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.PatientAppointmentView;
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+class KeysetPaginationTest {
+
+    private static final int ROWS = 95;
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void patientAppointmentPagesCoverEveryRowOnceNewestFirst() {
+        Doctor doctor = entityManager.persist(new Doctor("Dr. John Smith", "john.smith@clinic.com", "Cardiology", "+1-555-0101", null));
+        Patient patient = entityManager.persist(new Patient("Alice Wilson", "alice.wilson@email.com", "+1-555-0201", null));
+        for (int i = 0; i < ROWS; i++) {
+            // Pairs of appointments share a start time so the id tie-breaker is exercised
+            entityManager.persist(new Appointment(doctor, patient, LocalDateTime.of(2030, 1, 1, 9, 0).plusDays(i / 2), null));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<PatientAppointmentView> seen = new ArrayList<>();
+        ContinuationToken after = null;
+        int pages = 0;
+        do {
+            List<PatientAppointmentView> fetched = after == null
+                ? appointmentRepository.findByPatientIds(List.of(patient.getId()), Limit.of(PAGE_SIZE + 1))
+                : appointmentRepository.findByPatientIdsBefore(
+                    List.of(patient.getId()), after.time(), after.id(), Limit.of(PAGE_SIZE + 1));
+            CursorPage<PatientAppointmentView> page = CursorPage.of(
+                fetched, PAGE_SIZE, view -> ContinuationToken.of(view.appointmentTime(), view.id()));
+            seen.addAll(page.items());
+            after = ContinuationToken.decode(page.nextCursor());
+            pages++;
+        } while (after != null);
+
+        assertThat(pages).isEqualTo((ROWS + PAGE_SIZE - 1) / PAGE_SIZE);
+        assertThat(seen).extracting(PatientAppointmentView::id).doesNotHaveDuplicates().hasSize(ROWS);
+        assertThat(seen).extracting(PatientAppointmentView::appointmentTime)
+            .isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+}
@@ -0,0 +1,112 @@
+package com.ibm.certification.clinical_system.repository;
+
+import com.ibm.certification.clinical_system.dto.DoctorAppointmentView;
+import com.ibm.certification.clinical_system.dto.DoctorPrescriptionView;
+import com.ibm.certification.clinical_system.dto.PatientAppointmentView;
+import com.ibm.certification.clinical_system.dto.PatientPrescriptionView;
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.entity.Prescription;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+class ProjectionQueryCountTest {
+
+    private static final int ROWS = 200;
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 10);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    private Doctor doctor;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        doctor = entityManager.persist(new Doctor("Dr. John Smith", "john.smith@clinic.com", "Cardiology", "+1-555-0101", null));
+        Doctor otherDoctor = entityManager.persist(new Doctor("Dr. Sarah Johnson", "sarah.johnson@clinic.com", "Dermatology", "+1-555-0102", null));
+        patient = entityManager.persist(new Patient("Alice Wilson", "alice.wilson@email.com", "+1-555-0201", null));
+
+        for (int i = 0; i < ROWS; i++) {
+            Patient visitor = entityManager.persist(new Patient("Patient " + i, "patient" + i + "@email.com", "+1-555-1" + i, null));
+            entityManager.persist(new Appointment(doctor, visitor, DAY.atTime(8, 0).plusMinutes(i), null));
+            entityManager.persist(new Appointment(i % 2 == 0 ? doctor : otherDoctor, patient,
+                LocalDateTime.of(2030, 2, 1, 9, 0).plusDays(i), "Follow-up"));
+            entityManager.persist(new Prescription(doctor, visitor, "Ibuprofen", "400mg", null));
+            entityManager.persist(new Prescription(i % 2 == 0 ? doctor : otherDoctor, patient, "Lisinopril", "10mg", "Once daily"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void doctorScheduleIsOneQuery() {
+        List<DoctorAppointmentView> schedule = appointmentRepository.findScheduleByDoctorAndTimeBetween(
+            doctor.getId(), DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+
+        assertThat(schedule).hasSize(ROWS);
+        assertThat(schedule.get(0).notes()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void patientAppointmentsAreOneQuery() {
+        List<PatientAppointmentView> appointments = appointmentRepository.findByPatientIds(
+            List.of(patient.getId()), Limit.of(ROWS));
+
+        assertThat(appointments).hasSize(ROWS);
+        assertThat(appointments).extracting(PatientAppointmentView::doctorSpecialty)
+            .containsOnly("Cardiology", "Dermatology");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void doctorPrescriptionsAreOneQuery() {
+        List<DoctorPrescriptionView> prescriptions = prescriptionRepository.findViewsByDoctorId(
+            doctor.getId(), 0L, Limit.of(ROWS * 2));
+
+        assertThat(prescriptions).hasSize(ROWS + ROWS / 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void patientPrescriptionsAreOneQuery() {
+        List<PatientPrescriptionView> prescriptions = prescriptionRepository.findViewsByPatientId(
+            patient.getId(), 0L, Limit.of(ROWS));
+
+        assertThat(prescriptions).hasSize(ROWS);
+        assertThat(prescriptions).extracting(PatientPrescriptionView::doctorName)
+            .containsOnly("Dr. John Smith", "Dr. Sarah Johnson");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
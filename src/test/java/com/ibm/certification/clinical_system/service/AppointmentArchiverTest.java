@@ -0,0 +1,91 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.PatientAppointmentView;
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.repository.AppointmentRepository;
+import com.ibm.certification.clinical_system.repository.ArchivedAppointmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class AppointmentArchiverTest {
+
+    private static final LocalDateTime OLD_SLOT = LocalDateTime.of(2001, 3, 5, 9, 0);
+
+    private static final LocalDateTime RECENT_SLOT = LocalDateTime.of(2033, 3, 5, 9, 0);
+
+    @Autowired
+    private AppointmentArchiver archiver;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+
+    @Autowired
+    private AppointmentSlotIndex slotIndex;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void oldAppointmentsMoveToTheArchiveAndStayInPatientHistoryOnRequest() {
+        String suffix = Long.toString(System.nanoTime());
+        Doctor doctor = doctorService.saveDoctor(new Doctor("Dr. Robert Kim", "robert" + suffix + "@clinic.com",
+            "Orthopedics", "+1-555-0104", null));
+        Patient patient = patientService.savePatient(new Patient("David Wilson", "david" + suffix + "@email.com",
+            "+1-555-0204", null));
+        Appointment old = appointmentService.bookAppointment(doctor.getId(), patient.getId(), OLD_SLOT, "Old visit");
+        Appointment recent = appointmentService.bookAppointment(doctor.getId(), patient.getId(), RECENT_SLOT, null);
+
+        assertThat(archiver.archiveBefore(OLD_SLOT.plusDays(1))).isGreaterThanOrEqualTo(1);
+
+        assertThat(appointmentRepository.findById(old.getId())).isEmpty();
+        assertThat(appointmentRepository.findById(recent.getId())).isPresent();
+        assertThat(archivedAppointmentRepository.findById(old.getId()))
+            .hasValueSatisfying(archived -> assertThat(archived.getNotes()).isEqualTo("Old visit"));
+        assertThat(slotIndex.isAvailable(doctor.getId(), OLD_SLOT)).isTrue();
+        assertThat(slotIndex.isAvailable(doctor.getId(), RECENT_SLOT)).isFalse();
+        Integer events = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events "
+            + "WHERE type = 'APPOINTMENT_ARCHIVED' AND entity_id = ? AND origin = ?",
+            Integer.class, old.getId(), changeFeed.nodeId());
+        assertThat(events).isEqualTo(1);
+
+        CursorPage<PatientAppointmentView> hot = appointmentService.getAppointmentsByPatientCredentials(
+            patient.getEmail(), null, null, 50, false);
+        assertThat(hot.items()).extracting(PatientAppointmentView::id).containsExactly(recent.getId());
+
+        CursorPage<PatientAppointmentView> firstPage = appointmentService.getAppointmentsByPatientCredentials(
+            patient.getEmail(), null, null, 1, true);
+        assertThat(firstPage.items()).extracting(PatientAppointmentView::id).containsExactly(recent.getId());
+        CursorPage<PatientAppointmentView> secondPage = appointmentService.getAppointmentsByPatientCredentials(
+            patient.getEmail(), null, ContinuationToken.decode(firstPage.nextCursor()), 1, true);
+        assertThat(secondPage.items()).extracting(PatientAppointmentView::id).containsExactly(old.getId());
+        assertThat(secondPage.nextCursor()).isNull();
+    }
+}
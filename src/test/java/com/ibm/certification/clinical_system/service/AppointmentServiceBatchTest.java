@@ -0,0 +1,161 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.dto.AppointmentRequest;
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.repository.AppointmentRepository;
+import com.ibm.certification.clinical_system.repository.DoctorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AppointmentServiceBatchTest {
+
+    private static final LocalDateTime SLOT = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+    private static final long MISSING = 99L;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private final AppointmentSlotIndex slotIndex = new AppointmentSlotIndex();
+
+    private AppointmentRepository appointmentRepository;
+
+    private AppointmentService appointmentService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Appointment> saved = new ArrayList<>();
+            for (Appointment appointment : (Iterable<Appointment>) invocation.getArgument(0)) {
+                appointment.setId(ids.incrementAndGet());
+                saved.add(appointment);
+            }
+            return saved;
+        });
+
+        DoctorService doctorService = mock(DoctorService.class);
+        when(doctorService.getDoctorsByIds(anyCollection())).thenAnswer(invocation -> {
+            List<Doctor> doctors = new ArrayList<>();
+            for (Long id : (Collection<Long>) invocation.getArgument(0)) {
+                if (id != MISSING) {
+                    Doctor doctor = new Doctor("Dr. Test", "test" + id + "@clinic.com", "Cardiology", "+1-555-0000", null);
+                    doctor.setId(id);
+                    doctors.add(doctor);
+                }
+            }
+            return doctors;
+        });
+
+        PatientService patientService = mock(PatientService.class);
+        when(patientService.getPatientsByIds(anyCollection())).thenAnswer(invocation -> {
+            List<Patient> patients = new ArrayList<>();
+            for (Long id : (Collection<Long>) invocation.getArgument(0)) {
+                if (id != MISSING) {
+                    Patient patient = new Patient("Test Patient", "patient" + id + "@email.com", "+1-555-0001", null);
+                    patient.setId(id);
+                    patients.add(patient);
+                }
+            }
+            return patients;
+        });
+
+        appointmentService = new AppointmentService();
+        ReflectionTestUtils.setField(appointmentService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(appointmentService, "doctorRepository", mock(DoctorRepository.class));
+        ReflectionTestUtils.setField(appointmentService, "doctorService", doctorService);
+        ReflectionTestUtils.setField(appointmentService, "patientService", patientService);
+        ReflectionTestUtils.setField(appointmentService, "slotIndex", slotIndex);
+        ReflectionTestUtils.setField(appointmentService, "bookingLocks", new BookingLocks());
+        ReflectionTestUtils.setField(appointmentService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(appointmentService, "transactionTemplate",
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(appointmentService, "changeFeed", mock(ChangeFeed.class));
+    }
+
+    @Test
+    void booksEveryAppointmentOfABatch() {
+        List<Appointment> booked = appointmentService.bookAppointments(List.of(
+            request(1L, SLOT), request(1L, SLOT.plusMinutes(30)), request(2L, SLOT)));
+
+        assertThat(booked).extracting(Appointment::getId).containsExactly(1L, 2L, 3L);
+        assertThat(slotIndex.isAvailable(1L, SLOT)).isFalse();
+        assertThat(slotIndex.isAvailable(1L, SLOT.plusMinutes(30))).isFalse();
+        assertThat(slotIndex.isAvailable(2L, SLOT)).isFalse();
+    }
+
+    @Test
+    void overlapWithinTheBatchRejectsTheWholeBatch() {
+        assertThatThrownBy(() -> appointmentService.bookAppointments(List.of(
+                request(2L, SLOT), request(1L, SLOT), request(1L, SLOT.plusMinutes(15)))))
+            .hasMessage("Appointments 1 and 2 overlap");
+
+        assertThat(slotIndex.isAvailable(1L, SLOT)).isTrue();
+        assertThat(slotIndex.isAvailable(2L, SLOT)).isTrue();
+        verify(appointmentRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void conflictWithAnExistingBookingRejectsTheWholeBatch() {
+        appointmentService.bookAppointments(List.of(request(1L, SLOT)));
+
+        assertThatThrownBy(() -> appointmentService.bookAppointments(List.of(
+                request(2L, SLOT), request(1L, SLOT.plusMinutes(20)))))
+            .hasMessage("Appointment 1: Doctor is not available at the requested time");
+
+        assertThat(slotIndex.isAvailable(2L, SLOT)).isTrue();
+        assertThat(ids.get()).isEqualTo(1);
+    }
+
+    @Test
+    void missingDoctorOrPatientRejectsTheWholeBatch() {
+        assertThatThrownBy(() -> appointmentService.bookAppointments(List.of(
+                request(1L, SLOT), request(MISSING, SLOT))))
+            .hasMessage("Appointment 1: Doctor or Patient not found");
+        assertThatThrownBy(() -> appointmentService.bookAppointments(List.of(
+                new AppointmentRequest(1L, MISSING, SLOT, ""))))
+            .hasMessage("Appointment 0: Doctor or Patient not found");
+
+        assertThat(slotIndex.isAvailable(1L, SLOT)).isTrue();
+    }
+
+    @Test
+    void batchesAreCappedAndMustNotBeEmpty() {
+        List<AppointmentRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i <= AppointmentService.MAX_BATCH_SIZE; i++) {
+            tooMany.add(request(1L, SLOT.plusMinutes(30L * i)));
+        }
+
+        assertThatThrownBy(() -> appointmentService.bookAppointments(tooMany))
+            .hasMessage("A batch can contain at most " + AppointmentService.MAX_BATCH_SIZE + " appointments");
+        assertThatThrownBy(() -> appointmentService.bookAppointments(List.of()))
+            .hasMessage("At least one appointment is required");
+        assertThat(appointmentService.bookAppointments(tooMany.subList(0, AppointmentService.MAX_BATCH_SIZE)))
+            .hasSize(AppointmentService.MAX_BATCH_SIZE);
+    }
+
+    private static AppointmentRequest request(Long doctorId, LocalDateTime appointmentTime) {
+        return new AppointmentRequest(doctorId, 1L, appointmentTime, "");
+    }
+}
@@ -0,0 +1,167 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.AppointmentStatus;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.repository.AppointmentRepository;
+import com.ibm.certification.clinical_system.repository.DoctorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AppointmentServiceConcurrencyTest {
+
+    private static final int THREADS = 300;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AppointmentService appointmentService;
+
+    @BeforeEach
+    void setUp() {
+        AppointmentRepository appointmentRepository = mock(AppointmentRepository.class);
+        when(appointmentRepository.save(any(Appointment.class))).thenAnswer(invocation -> {
+            Appointment appointment = invocation.getArgument(0);
+            Thread.sleep(1);
+            if (appointment.getId() == null) {
+                appointment.setId(ids.incrementAndGet());
+            }
+            return appointment;
+        });
+
+        DoctorService doctorService = mock(DoctorService.class);
+        when(doctorService.getDoctorById(anyLong())).thenAnswer(invocation -> {
+            Doctor doctor = new Doctor("Dr. Test", "test@clinic.com", "Cardiology", "+1-555-0000", null);
+            doctor.setId(invocation.getArgument(0));
+            return Optional.of(doctor);
+        });
+
+        PatientService patientService = mock(PatientService.class);
+        when(patientService.getPatientById(anyLong())).thenAnswer(invocation -> {
+            Patient patient = new Patient("Test Patient", "patient@email.com", "+1-555-0001", null);
+            patient.setId(invocation.getArgument(0));
+            return Optional.of(patient);
+        });
+
+        appointmentService = new AppointmentService();
+        ReflectionTestUtils.setField(appointmentService, "appointmentRepository", appointmentRepository);
+        ReflectionTestUtils.setField(appointmentService, "doctorRepository", mock(DoctorRepository.class));
+        ReflectionTestUtils.setField(appointmentService, "doctorService", doctorService);
+        ReflectionTestUtils.setField(appointmentService, "patientService", patientService);
+        ReflectionTestUtils.setField(appointmentService, "slotIndex", new AppointmentSlotIndex());
+        ReflectionTestUtils.setField(appointmentService, "bookingLocks", new BookingLocks());
+        ReflectionTestUtils.setField(appointmentService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(appointmentService, "transactionTemplate",
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(appointmentService, "changeFeed", mock(ChangeFeed.class));
+    }
+
+    @Test
+    void concurrentBookingsOfOneSlotProduceExactlyOneAppointment() throws Exception {
+        LocalDateTime slot = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+        AtomicInteger successes = runConcurrently(i -> appointmentService.bookAppointment(1L, (long) i, slot, ""));
+
+        assertThat(successes.get()).isEqualTo(1);
+        assertThat(ids.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter(AppointmentService.BOOKINGS_METRIC, "outcome", "booked").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(AppointmentService.BOOKINGS_METRIC, "outcome", "conflict").count())
+            .isEqualTo(THREADS - 1);
+    }
+
+    @Test
+    void overlappingBookingsAcrossMidnightAreSerialized() throws Exception {
+        LocalDateTime beforeMidnight = LocalDateTime.of(2030, 3, 4, 23, 50);
+        LocalDateTime afterMidnight = LocalDateTime.of(2030, 3, 5, 0, 10);
+
+        AtomicInteger successes = runConcurrently(i -> appointmentService.bookAppointment(
+            1L, (long) i, i % 2 == 0 ? beforeMidnight : afterMidnight, ""));
+
+        assertThat(successes.get()).isEqualTo(1);
+    }
+
+    @Test
+    void bookingsForDifferentDoctorsAllSucceed() throws Exception {
+        LocalDateTime slot = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+        AtomicInteger successes = runConcurrently(i -> appointmentService.bookAppointment((long) i, 1L, slot, ""));
+
+        assertThat(successes.get()).isEqualTo(THREADS);
+    }
+
+    @Test
+    void uncancellingAnAppointmentWhoseSlotWasRebookedIsRejected() {
+        LocalDateTime slot = LocalDateTime.of(2030, 3, 4, 10, 0);
+        Appointment first = appointmentService.bookAppointment(1L, 1L, slot, "");
+        first.setStatus(AppointmentStatus.CANCELLED);
+        appointmentService.updateAppointment(first);
+        appointmentService.bookAppointment(1L, 2L, slot.plusMinutes(15), "");
+
+        first.setStatus(AppointmentStatus.SCHEDULED);
+        assertThatThrownBy(() -> appointmentService.updateAppointment(first))
+            .hasMessage("Doctor is not available at the requested time");
+
+        Appointment other = appointmentService.bookAppointment(1L, 3L, slot.plusHours(2), "");
+        other.setStatus(AppointmentStatus.CONFIRMED);
+        assertThat(appointmentService.updateAppointment(other).getStatus()).isEqualTo(AppointmentStatus.CONFIRMED);
+    }
+
+    private AtomicInteger runConcurrently(Booking booking) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        booking.book(index);
+                        successes.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        assertThat(e).hasMessage("Doctor is not available at the requested time");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return successes;
+    }
+
+    @FunctionalInterface
+    private interface Booking {
+        void book(int index);
+    }
+}
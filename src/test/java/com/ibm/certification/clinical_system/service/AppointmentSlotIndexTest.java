@@ -0,0 +1,40 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentSlotIndexTest {
+
+    private static final LocalDateTime SLOT = LocalDateTime.of(2030, 3, 4, 10, 0);
+
+    private final AppointmentSlotIndex index = new AppointmentSlotIndex();
+
+    @Test
+    void movingAnAppointmentToAnotherDoctorFreesTheOldDoctorsSlot() {
+        Appointment appointment = new Appointment(doctor(1L), new Patient(), SLOT, "");
+        appointment.setId(7L);
+        index.place(appointment);
+        assertThat(index.isAvailable(1L, SLOT)).isFalse();
+
+        appointment.setDoctor(doctor(2L));
+        index.place(appointment);
+
+        assertThat(index.isAvailable(1L, SLOT)).isTrue();
+        assertThat(index.isAvailable(2L, SLOT)).isFalse();
+
+        index.remove(1L, 7L);
+        assertThat(index.isAvailable(2L, SLOT)).isTrue();
+    }
+
+    private static Doctor doctor(Long id) {
+        Doctor doctor = new Doctor("Dr. Test", "test" + id + "@clinic.com", "Cardiology", "+1-555-0000", null);
+        doctor.setId(id);
+        return doctor;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ibm.certification.clinical_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityTemplateTest {
+
+    @Test
+    void parsesSingleStartTimesInDayOrder() {
+        assertThat(AvailabilityTemplate.parse("14:30, 09:00,09:00,10:15").startTimes())
+            .containsExactly(LocalTime.of(9, 0), LocalTime.of(10, 15), LocalTime.of(14, 30));
+    }
+
+    @Test
+    void splitsRangesIntoWholeAppointments() {
+        assertThat(AvailabilityTemplate.parse("09:00-10:45, 13:00 - 14:00").startTimes()).containsExactly(
+            LocalTime.of(9, 0), LocalTime.of(9, 30), LocalTime.of(10, 0),
+            LocalTime.of(13, 0), LocalTime.of(13, 30));
+    }
+
+    @Test
+    void dropsMalformedEntriesAndKeepsTheRest() {
+        assertThat(AvailabilityTemplate.parse("9am,10:00,11:00-noon,,25:00,12:00").startTimes())
+            .containsExactly(LocalTime.of(10, 0), LocalTime.of(12, 0));
+        assertThat(AvailabilityTemplate.parse("closed").startTimes()).isEmpty();
+    }
+
+    @Test
+    void dropsStartTimesOffTheSlotGrid() {
+        assertThat(AvailabilityTemplate.parse("09:10,10:00,10:30:30,11:05-12:00,13:00-14:00").startTimes())
+            .containsExactly(LocalTime.of(10, 0), LocalTime.of(13, 0), LocalTime.of(13, 30));
+    }
+
+    @Test
+    void blankScheduleFallsBackToOfficeHours() {
+        assertThat(AvailabilityTemplate.parse(null).startTimes())
+            .hasSize(9)
+            .startsWith(LocalTime.of(9, 0))
+            .endsWith(LocalTime.of(17, 0));
+        assertThat(AvailabilityTemplate.parse("  ").startTimes()).isEqualTo(AvailabilityTemplate.parse(null).startTimes());
+    }
+}
@@ -0,0 +1,176 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.ChangeType;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ChangeFeedTest {
+
+    private static final LocalDateTime SLOT = LocalDateTime.of(2032, 5, 10, 14, 0);
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentSlotIndex slotIndex;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Doctor doctor;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = Long.toString(System.nanoTime());
+        doctor = doctorService.saveDoctor(new Doctor("Dr. Michael Chen", "michael" + suffix + "@clinic.com",
+            "Neurology", "+1-555-0102", null));
+        patient = patientService.savePatient(new Patient("Carol Davis", "carol" + suffix + "@email.com",
+            "+1-555-0203", null));
+        changeFeed.poll();
+    }
+
+    @Test
+    void bookingWritesItsOutboxEventInTheSameTransaction() {
+        Appointment appointment = appointmentService.bookAppointment(doctor.getId(), patient.getId(), SLOT, "Check-up");
+
+        Integer events = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM outbox_events WHERE type = 'APPOINTMENT_SAVED' AND entity_id = ? AND origin = ?",
+            Integer.class, appointment.getId(), changeFeed.nodeId());
+        assertThat(events).isEqualTo(1);
+    }
+
+    @Test
+    void bookingOnAnotherNodeOccupiesTheSlotHere() throws InterruptedException {
+        LocalDateTime slot = SLOT.plusDays(1);
+        assertThat(slotIndex.isAvailable(doctor.getId(), slot)).isTrue();
+
+        jdbcTemplate.update("INSERT INTO outbox_events (type, entity_id, doctor_id, patient_id, slot_time, "
+                + "occupies_slot, origin, created_at) VALUES ('APPOINTMENT_SAVED', ?, ?, ?, ?, TRUE, 'other-node', ?)",
+            Long.MAX_VALUE, doctor.getId(), patient.getId(), Timestamp.valueOf(slot),
+            Timestamp.valueOf(LocalDateTime.now()));
+        // Rolled-back transactions in other tests may have burnt ids, which holds the event back for the gap timeout
+        long deadline = System.nanoTime() + ChangeFeed.GAP_TIMEOUT.multipliedBy(2).toNanos();
+        changeFeed.poll();
+        while (slotIndex.isAvailable(doctor.getId(), slot) && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            changeFeed.poll();
+        }
+
+        assertThat(slotIndex.isAvailable(doctor.getId(), slot)).isFalse();
+        assertThat(slotIndex.isAvailable(doctor.getId(), slot.plusMinutes(30))).isTrue();
+    }
+
+    @Test
+    void bookingOnAnotherNodeBlocksTheSlotBeforeItsEventArrives() {
+        LocalDateTime slot = SLOT.plusDays(2);
+        jdbcTemplate.update("INSERT INTO appointments (id, doctor_id, patient_id, appointment_time, status, "
+                + "created_at) SELECT MAX(id) + 1000, ?, ?, ?, 'SCHEDULED', ? FROM appointments",
+            doctor.getId(), patient.getId(), Timestamp.valueOf(slot), Timestamp.valueOf(LocalDateTime.now()));
+        assertThat(slotIndex.isAvailable(doctor.getId(), slot.plusMinutes(15))).isTrue();
+
+        assertThatThrownBy(() -> appointmentService.bookAppointment(
+                doctor.getId(), patient.getId(), slot.plusMinutes(15), "Check-up"))
+            .hasMessage("Doctor is not available at the requested time");
+        assertThat(appointmentService.bookAppointment(doctor.getId(), patient.getId(), slot.plusMinutes(30), "Check-up"))
+            .isNotNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void eventsCommittedWhileTheCachesLoadAreDelivered() {
+        JdbcTemplate outbox = mock(JdbcTemplate.class);
+        when(outbox.queryForObject("SELECT MAX(id) FROM outbox_events", Long.class)).thenReturn(5L);
+        ChangeEvent saved = new ChangeEvent(6L, ChangeType.DOCTOR_SAVED, 1L, null, null, null, false, "other-node");
+        when(outbox.query(anyString(), any(RowMapper.class), eq(5L))).thenReturn(List.of(saved));
+        ChangeFeed feed = new ChangeFeed();
+        ReflectionTestUtils.setField(feed, "jdbcTemplate", outbox);
+        ReflectionTestUtils.setField(feed, "transactionTemplate",
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(feed, "warmUp", true);
+        List<ChangeEvent> delivered = new ArrayList<>();
+        feed.addListener(delivered::add);
+
+        ReflectionTestUtils.invokeMethod(feed, "init");
+        when(outbox.queryForObject("SELECT MAX(id) FROM outbox_events", Long.class)).thenReturn(6L);
+        feed.poll();
+
+        assertThat(delivered).containsExactly(saved);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void skippedEventsThatCommitLateAreStillDelivered() {
+        JdbcTemplate outbox = mock(JdbcTemplate.class);
+        NamedParameterJdbcTemplate lateOutbox = mock(NamedParameterJdbcTemplate.class);
+        ChangeEvent late = new ChangeEvent(6L, ChangeType.DOCTOR_SAVED, 1L, null, null, null, false, "other-node");
+        ChangeEvent next = new ChangeEvent(7L, ChangeType.DOCTOR_SAVED, 2L, null, null, null, false, "other-node");
+        when(outbox.queryForObject("SELECT MAX(id) FROM outbox_events", Long.class)).thenReturn(5L);
+        when(outbox.query(anyString(), any(RowMapper.class), eq(5L))).thenReturn(List.of(next));
+        when(lateOutbox.query(anyString(), anyMap(), any(RowMapper.class))).thenReturn(List.of(late));
+        ChangeFeed feed = new ChangeFeed();
+        ReflectionTestUtils.setField(feed, "jdbcTemplate", outbox);
+        ReflectionTestUtils.setField(feed, "namedParameterJdbcTemplate", lateOutbox);
+        ReflectionTestUtils.setField(feed, "transactionTemplate",
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(feed, "warmUp", true);
+        List<ChangeEvent> delivered = new ArrayList<>();
+        feed.addListener(delivered::add);
+        ReflectionTestUtils.invokeMethod(feed, "init");
+
+        feed.poll();
+        assertThat(delivered).isEmpty();
+
+        ReflectionTestUtils.setField(feed, "gapSince", System.nanoTime() - ChangeFeed.GAP_TIMEOUT.toNanos());
+        feed.poll();
+        assertThat(delivered).containsExactly(next);
+
+        feed.poll();
+        feed.poll();
+        assertThat(delivered).containsExactly(next, late);
+    }
+
+    @Test
+    void publishingOutsideATransactionIsRejected() {
+        assertThatThrownBy(() -> changeFeed.publish(ChangeEvent.doctorSaved(doctor)))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.dto.ContinuationToken;
+import com.ibm.certification.clinical_system.dto.CursorPage;
+import com.ibm.certification.clinical_system.dto.DoctorView;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.repository.DoctorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class DoctorDirectoryTest {
+
+    private DoctorRepository doctorRepository;
+
+    private DoctorService doctorService;
+
+    @BeforeEach
+    void setUp() {
+        doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findAll()).thenReturn(List.of(
+            doctor(3L, "Dr. Sarah Johnson", "Cardiology"),
+            doctor(1L, "Dr. Michael Chen", "Dermatology"),
+            doctor(2L, "Dr. Emily Rodriguez", "cardiology ")));
+        when(doctorRepository.save(any(Doctor.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        doctorService = new DoctorService();
+        ReflectionTestUtils.setField(doctorService, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(doctorService, "slotIndex", new AppointmentSlotIndex());
+        ReflectionTestUtils.setField(doctorService, "changeFeed", mock(ChangeFeed.class));
+        doctorService.init();
+    }
+
+    @Test
+    void readsAreServedFromTheSnapshot() {
+        assertThat(doctorService.getAllDoctors()).extracting(DoctorView::id).containsExactly(1L, 2L, 3L);
+        assertThat(doctorService.getDoctorsBySpecialty("CARDIOLOGY")).extracting(DoctorView::id).containsExactly(2L, 3L);
+        assertThat(doctorService.getDoctorsBySpecialty("Oncology")).isEmpty();
+        assertThat(doctorService.getAvailability(3L, LocalDate.of(2030, 1, 1))).isPresent();
+        assertThat(doctorService.getAllDoctors()).isSameAs(doctorService.getAllDoctors());
+
+        CursorPage<DoctorView> first = doctorService.getDoctors(null, 2);
+        assertThat(first.items()).extracting(DoctorView::id).containsExactly(1L, 2L);
+        CursorPage<DoctorView> second = doctorService.getDoctors(ContinuationToken.decode(first.nextCursor()), 2);
+        assertThat(second.items()).extracting(DoctorView::id).containsExactly(3L);
+        assertThat(second.nextCursor()).isNull();
+
+        verify(doctorRepository, times(1)).findAll();
+        verifyNoMoreInteractions(doctorRepository);
+    }
+
+    @Test
+    void savingADoctorSwapsInANewSnapshot() {
+        long version = doctorService.getDirectory().version();
+        List<DoctorView> before = doctorService.getAllDoctors();
+
+        doctorService.saveDoctor(doctor(1L, "Dr. Michael Chen", "Cardiology"));
+        doctorService.saveDoctor(doctor(4L, "Dr. James Wilson", "Neurology"));
+
+        assertThat(doctorService.getDirectory().version()).isEqualTo(version + 2);
+        assertThat(before).extracting(DoctorView::specialty).containsExactly("Dermatology", "cardiology ", "Cardiology");
+        assertThat(doctorService.getAllDoctors()).extracting(DoctorView::id).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(doctorService.getDoctorsBySpecialty("cardiology")).extracting(DoctorView::id).containsExactly(1L, 2L, 3L);
+        assertThat(doctorService.getDoctorsBySpecialty("Dermatology")).isEmpty();
+    }
+
+    private static Doctor doctor(Long id, String name, String specialty) {
+        Doctor doctor = new Doctor(name, name.toLowerCase().replace(' ', '.') + "@clinic.com", specialty,
+            "+1-555-0101", "09:00,10:00");
+        ReflectionTestUtils.setField(doctor, "id", id);
+        return doctor;
+    }
+}
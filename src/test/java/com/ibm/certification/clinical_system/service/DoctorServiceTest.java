@@ -0,0 +1,127 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.dto.AvailableSlot;
+import com.ibm.certification.clinical_system.entity.Appointment;
+import com.ibm.certification.clinical_system.entity.AppointmentStatus;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.repository.DoctorRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DoctorServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final AppointmentSlotIndex slotIndex = new AppointmentSlotIndex();
+
+    private DoctorService doctorService;
+
+    @BeforeEach
+    void setUp() {
+        DoctorRepository doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.findAll()).thenReturn(List.of(
+            doctor(1L, "Cardiology", "00:00,09:00,23:30"),
+            doctor(2L, "Cardiology", "09:00,09:30"),
+            doctor(3L, "Dermatology", "08:00")));
+
+        doctorService = new DoctorService();
+        ReflectionTestUtils.setField(doctorService, "doctorRepository", doctorRepository);
+        ReflectionTestUtils.setField(doctorService, "slotIndex", slotIndex);
+        ReflectionTestUtils.setField(doctorService, "changeFeed", mock(ChangeFeed.class));
+        ReflectionTestUtils.setField(doctorService, "entityManagerFactory", mock(EntityManagerFactory.class));
+        ReflectionTestUtils.invokeMethod(doctorService, "init");
+    }
+
+    @Test
+    void bookingAndCancellingRefreshCachedAvailability() {
+        assertThat(doctorService.getAvailableTimeSlots(1L, DAY)).containsExactly("00:00", "09:00", "23:30");
+
+        Appointment appointment = appointment(10L, DAY.atTime(9, 0));
+        slotIndex.place(appointment);
+        assertThat(doctorService.getAvailableTimeSlots(1L, DAY)).containsExactly("00:00", "23:30");
+
+        appointment.setStatus(AppointmentStatus.CANCELLED);
+        slotIndex.place(appointment);
+        assertThat(doctorService.getAvailableTimeSlots(1L, DAY)).containsExactly("00:00", "09:00", "23:30");
+    }
+
+    @Test
+    void bookingLateInTheDayRefreshesTheNextDay() {
+        assertThat(doctorService.getAvailableTimeSlots(1L, DAY.plusDays(1))).containsExactly("00:00", "09:00", "23:30");
+
+        slotIndex.place(appointment(10L, DAY.atTime(23, 45)));
+
+        assertThat(doctorService.getAvailableTimeSlots(1L, DAY)).containsExactly("00:00", "09:00");
+        assertThat(doctorService.getAvailableTimeSlots(1L, DAY.plusDays(1))).containsExactly("09:00", "23:30");
+    }
+
+    @Test
+    void searchRejectsReversedAndOverlongRanges() {
+        assertThatThrownBy(() -> doctorService.searchAvailability("Cardiology", DAY, DAY.minusDays(1), 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> doctorService.searchAvailability("Cardiology", DAY,
+                DAY.plusDays(DoctorService.MAX_SEARCH_DAYS), 10))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(doctorService.searchAvailability("Cardiology", DAY,
+            DAY.plusDays(DoctorService.MAX_SEARCH_DAYS - 1), 10)).hasSize(10);
+    }
+
+    @Test
+    void searchMergesDoctorsInStartTimeOrderUpToTheLimit() {
+        slotIndex.place(appointment(10L, DAY.atTime(9, 0)));
+
+        assertThat(doctorService.searchAvailability("cardiology", DAY, DAY.plusDays(1), 100))
+            .extracting(AvailableSlot::doctorId, AvailableSlot::startTime)
+            .containsExactly(
+                tuple(1L, DAY.atTime(0, 0)),
+                tuple(2L, DAY.atTime(9, 0)),
+                tuple(2L, DAY.atTime(9, 30)),
+                tuple(1L, DAY.atTime(23, 30)),
+                tuple(1L, DAY.plusDays(1).atTime(0, 0)),
+                tuple(1L, DAY.plusDays(1).atTime(9, 0)),
+                tuple(2L, DAY.plusDays(1).atTime(9, 0)),
+                tuple(2L, DAY.plusDays(1).atTime(9, 30)),
+                tuple(1L, DAY.plusDays(1).atTime(23, 30)));
+        assertThat(doctorService.searchAvailability("Cardiology", DAY, DAY.plusDays(1), 3))
+            .extracting(AvailableSlot::startTime)
+            .containsExactly(DAY.atTime(0, 0), DAY.atTime(9, 0), DAY.atTime(9, 30));
+    }
+
+    @Test
+    void searchSkipsSlotsThatHaveAlreadyStarted() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+
+        List<AvailableSlot> slots = doctorService.searchAvailability("Cardiology", today.minusDays(1),
+            today.plusDays(1), 100);
+
+        assertThat(slots).allMatch(slot -> slot.startTime().isAfter(now));
+        assertThat(slots).extracting(AvailableSlot::startTime).contains(today.plusDays(1).atTime(0, 0));
+    }
+
+    private static Doctor doctor(Long id, String specialty, String availableTimes) {
+        Doctor doctor = new Doctor("Dr. Test " + id, "test" + id + "@clinic.com", specialty, "+1-555-0000",
+            availableTimes);
+        doctor.setId(id);
+        return doctor;
+    }
+
+    private static Appointment appointment(Long id, LocalDateTime appointmentTime) {
+        Appointment appointment = new Appointment(doctor(1L, "Cardiology", null), new Patient(), appointmentTime, "");
+        appointment.setId(id);
+        return appointment;
+    }
+}
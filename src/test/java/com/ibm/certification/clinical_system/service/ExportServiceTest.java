@@ -0,0 +1,126 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.entity.Prescription;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ExportServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private String token;
+
+    private List<Prescription> prescriptions;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportService, "directory", directory);
+        String suffix = Long.toString(System.nanoTime());
+        Doctor doctor = doctorService.saveDoctor(new Doctor("Dr. Emily Rodriguez", "emily" + suffix + "@clinic.com",
+            "Pediatrics", "+1-555-0103", null));
+        Patient patient = patientService.savePatient(new Patient("Bob Johnson", "bob" + suffix + "@email.com",
+            "+1-555-0202", null));
+        token = tokenService.generateJWTToken(doctor.getEmail(), "DOCTOR");
+        prescriptions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            prescriptions.add(prescriptionService.savePrescription(token, doctor.getId(), patient.getId(),
+                "Amoxicillin, batch \"" + suffix + "\" #" + i, "250mg", "Twice daily"));
+        }
+    }
+
+    @Test
+    void exportRotatesCompressedFilesAndRecordsTheCheckpoint() throws Exception {
+        ExportJob job = awaitFinished(exportService.startExport(token, ExportService.Dataset.PRESCRIPTIONS,
+            ExportService.Format.CSV, 2L));
+
+        assertThat(job.getState()).isEqualTo(ExportJob.State.COMPLETED);
+        assertThat(job.getRowsExported()).isEqualTo(job.getTotalRows()).isGreaterThanOrEqualTo(3);
+        assertThat(job.getFiles()).hasSize((int) ((job.getRowsExported() + 1) / 2));
+        assertThat(job.getCheckpointId()).isEqualTo(prescriptions.get(2).getId());
+
+        List<String> lines = new ArrayList<>();
+        for (String file : job.getFiles()) {
+            List<String> fileLines = read(directory.resolve(file));
+            assertThat(fileLines.get(0)).startsWith("id,doctorId,doctorName");
+            lines.addAll(fileLines.subList(1, fileLines.size()));
+        }
+        assertThat(lines).hasSize((int) job.getRowsExported());
+        Prescription second = prescriptions.get(1);
+        assertThat(lines).anyMatch(line -> line.startsWith(second.getId() + "," + second.getDoctor().getId()
+            + ",Dr. Emily Rodriguez," + second.getPatient().getId() + ",Bob Johnson,"
+            + ExportService.csvField(second.getMedication()) + ",250mg,Twice daily,"));
+
+        assertThatThrownBy(() -> exportService.resumeExport(token, job.getId()))
+            .hasMessageContaining("already completed");
+    }
+
+    @Test
+    void resumedExportContinuesAfterTheCheckpoint() throws Exception {
+        String jobId = UUID.randomUUID().toString();
+        Files.writeString(directory.resolve(jobId + ".checkpoint"), String.join("\n",
+            "dataset=PRESCRIPTIONS", "format=NDJSON", "rowsPerFile=1000", "lastId=" + prescriptions.get(0).getId(),
+            "rows=7", "nextPart=4", "files=", "completed=false"));
+
+        ExportJob job = awaitFinished(exportService.resumeExport(token, jobId));
+
+        assertThat(job.getState()).isEqualTo(ExportJob.State.COMPLETED);
+        assertThat(job.getRowsExported()).isEqualTo(7 + 2);
+        assertThat(job.getFiles()).containsExactly("prescriptions-" + jobId + "-00004.ndjson.gz");
+        List<String> lines = read(directory.resolve(job.getFiles().get(0)));
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("{\"id\":" + prescriptions.get(1).getId() + ",\"doctorId\":");
+    }
+
+    private static ExportJob awaitFinished(ExportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while ((job.getState() == ExportJob.State.QUEUED || job.getState() == ExportJob.State.RUNNING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        return job;
+    }
+
+    private static List<String> read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.dto.DoctorView;
+import com.ibm.certification.clinical_system.dto.PatientView;
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class LocalCacheCommitTest {
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rolledBackSavesLeaveTheNameIndexAndDirectoryUnchanged() {
+        String suffix = Long.toString(System.nanoTime());
+        String patientEmail = "rollback" + suffix + "@email.com";
+        String doctorEmail = "rollback" + suffix + "@clinic.com";
+
+        transactionTemplate.executeWithoutResult(status -> {
+            patientService.savePatient(new Patient("Rollback " + suffix, patientEmail, "+1-555-0298", null));
+            doctorService.saveDoctor(new Doctor("Dr. Rollback", doctorEmail, "Oncology", "+1-555-0198", null));
+            assertThat(patientService.existsByEmail(patientEmail)).isTrue();
+            status.setRollbackOnly();
+        });
+
+        assertThat(patientService.searchPatientsByName("Rollback " + suffix, 10)).isEmpty();
+        assertThat(doctorService.getAllDoctors()).extracting(DoctorView::email).doesNotContain(doctorEmail);
+        assertThat(patientService.existsByEmail(patientEmail)).isFalse();
+    }
+
+    @Test
+    void committedSavesReachTheNameIndexAndDirectory() {
+        String suffix = Long.toString(System.nanoTime());
+        String doctorEmail = "commit" + suffix + "@clinic.com";
+
+        transactionTemplate.executeWithoutResult(status -> {
+            patientService.savePatient(new Patient("Commit " + suffix, "commit" + suffix + "@email.com",
+                "+1-555-0297", null));
+            doctorService.saveDoctor(new Doctor("Dr. Commit", doctorEmail, "Oncology", "+1-555-0197", null));
+            assertThat(doctorService.getAllDoctors()).extracting(DoctorView::email).doesNotContain(doctorEmail);
+        });
+
+        assertThat(patientService.searchPatientsByName("Commit " + suffix, 10))
+            .extracting(PatientView::name).containsExactly("Commit " + suffix);
+        assertThat(doctorService.getAllDoctors()).extracting(DoctorView::email).contains(doctorEmail);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class PatientImportServiceTest {
+
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void ndjsonImportSkipsDuplicatesAndReportsBadRows() throws IOException {
+        String suffix = Long.toString(System.nanoTime());
+        patientService.savePatient(new Patient("Existing", "existing" + suffix + "@email.com", "+1-555-" + suffix, null));
+        String body = String.join("\n",
+            row("Alice", "alice" + suffix + "@email.com", "+1-556-" + suffix),
+            row("Alice Again", "ALICE" + suffix + "@email.com", "+1-557-" + suffix),
+            row("Bob", "bob" + suffix + "@email.com", "+1-558-" + suffix),
+            "{not json",
+            "",
+            row("Existing Too", "existing" + suffix + "@email.com", "+1-559-" + suffix),
+            row("", "nameless" + suffix + "@email.com", "+1-560-" + suffix),
+            row("Carol", "carol" + suffix + "@email.com", "+1-561-" + suffix));
+
+        PatientImportReport report = patientImportService.importPatients(
+            new StringReader(body), PatientImportService.Format.NDJSON, 2);
+
+        assertThat(report.rows()).isEqualTo(7);
+        assertThat(report.imported()).isEqualTo(3);
+        assertThat(report.duplicates()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(2);
+        assertThat(report.errors()).extracting(PatientImportReport.RowError::line).containsExactly(2L, 4L, 7L, 6L);
+        assertThat(patientService.existsByEmail("bob" + suffix + "@email.com")).isTrue();
+        assertThat(patientService.searchPatientsByName("Carol", 50))
+            .anyMatch(patient -> patient.email().equals("carol" + suffix + "@email.com"));
+        Integer events = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM outbox_events e JOIN patients p ON p.id = e.entity_id "
+                + "WHERE e.type = 'PATIENT_SAVED' AND p.email LIKE ?", Integer.class, "%" + suffix + "@email.com");
+        assertThat(events).isEqualTo(4);
+    }
+
+    @Test
+    void csvImportHonoursTheHeaderAndQuotedFields() throws IOException {
+        String suffix = Long.toString(System.nanoTime());
+        String body = "email,name,phone,address\n"
+            + "dana" + suffix + "@email.com,\"Dana \"\"D\"\" Lee\",+1-562-" + suffix + ",\"12 Main St, Springfield\"\n"
+            + "eve" + suffix + "@email.com,Eve,+1-562-" + suffix + ",\n";
+
+        PatientImportReport report = patientImportService.importPatients(
+            new StringReader(body), PatientImportService.Format.CSV, 500);
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.duplicates()).isEqualTo(1);
+        assertThat(patientService.getPatientByEmailOrPhone("dana" + suffix + "@email.com", null))
+            .hasValueSatisfying(patient -> {
+                assertThat(patient.getName()).isEqualTo("Dana \"D\" Lee");
+                assertThat(patient.getAddress()).isEqualTo("12 Main St, Springfield");
+            });
+    }
+
+    @Test
+    void rowsBreakingColumnConstraintsAreRejectedWithoutFailingTheirBatch() throws IOException {
+        String suffix = Long.toString(System.nanoTime());
+        String body = String.join("\n",
+            row("Frank", "frank" + suffix + "@email.com", "+1-563-" + suffix),
+            row("G".repeat(256), "grace" + suffix + "@email.com", "+1-564-" + suffix),
+            row("Heidi", "heidi " + suffix + "@email.com", "+1-565-" + suffix),
+            row("Ivan", "ivan" + suffix + "@email.com", "+1-566-" + "9".repeat(250)),
+            row("Judy", "judy" + suffix + "@email.com", "+1-567-" + suffix));
+
+        PatientImportReport report = patientImportService.importPatients(
+            new StringReader(body), PatientImportService.Format.NDJSON, 500);
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.failed()).isEqualTo(3);
+        assertThat(report.errors()).extracting(PatientImportReport.RowError::error).containsExactly(
+            "Name must be at most 255 characters", "A valid email is required", "Phone must be at most 255 characters");
+        assertThat(patientService.existsByEmail("judy" + suffix + "@email.com")).isTrue();
+    }
+
+    private static String row(String name, String email, String phone) {
+        return "{\"name\":\"" + name + "\",\"email\":\"" + email + "\",\"phone\":\"" + phone + "\"}";
+    }
+}
@@ -0,0 +1,64 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.dto.PatientView;
+import com.ibm.certification.clinical_system.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PatientNameIndexTest {
+
+    private PatientNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        PatientRepository patientRepository = mock(PatientRepository.class);
+        when(patientRepository.findPageAfter(eq(0L), any(Limit.class))).thenReturn(List.of(
+            patient(1L, "Alice Wilson"),
+            patient(2L, "Wilson Alvarez"),
+            patient(3L, "José Ramírez"),
+            patient(4L, "Maxwell Grant"),
+            patient(5L, "Wil")
+        ));
+        index = new PatientNameIndex();
+        ReflectionTestUtils.setField(index, "patientRepository", patientRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void ranksExactThenPrefixThenWordPrefixThenSubstring() {
+        assertThat(index.search("wil", 10)).extracting(PatientView::id).containsExactly(5L, 2L, 1L);
+        assertThat(index.search("WELL", 10)).extracting(PatientView::id).containsExactly(4L);
+        assertThat(index.search("wil", 2)).extracting(PatientView::id).containsExactly(5L, 2L);
+    }
+
+    @Test
+    void foldsAccentsAndCase() {
+        assertThat(index.search("jose ramirez", 10)).extracting(PatientView::id).containsExactly(3L);
+        assertThat(index.search("RAMÍ", 10)).extracting(PatientView::id).containsExactly(3L);
+        assertThat(index.search("ez", 10)).extracting(PatientView::id).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void renamedPatientIsFoundOnlyUnderNewName() {
+        index.put(patient(1L, "Alice Brown"));
+        index.put(patient(6L, "Bob Brownlee"));
+
+        assertThat(index.search("wilson", 10)).extracting(PatientView::id).containsExactly(2L);
+        assertThat(index.search("brown", 10)).extracting(PatientView::id).containsExactly(1L, 6L);
+        assertThat(index.size()).isEqualTo(6);
+    }
+
+    private static PatientView patient(Long id, String name) {
+        return new PatientView(id, name, "patient" + id + "@email.com", "+1-555-020" + id, "", null);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PatientServiceLookupCacheTest {
+
+    private PatientRepository patientRepository;
+
+    private PatientService patientService;
+
+    private Patient alice;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository = mock(PatientRepository.class);
+        patientService = new PatientService();
+        ReflectionTestUtils.setField(patientService, "patientRepository", patientRepository);
+        ReflectionTestUtils.setField(patientService, "patientNameIndex", mock(PatientNameIndex.class));
+        ReflectionTestUtils.setField(patientService, "changeFeed", mock(ChangeFeed.class));
+
+        alice = new Patient("Alice Wilson", "alice.wilson@email.com", "+1-555-0201", null);
+        ReflectionTestUtils.setField(alice, "id", 7L);
+        when(patientRepository.findIdByEmail("alice.wilson@email.com")).thenReturn(Optional.of(7L));
+        when(patientRepository.findIdByEmail("new@email.com")).thenReturn(Optional.empty());
+        when(patientRepository.findIdsByPhone(anyString())).thenReturn(List.of());
+        when(patientRepository.findById(7L)).thenReturn(Optional.of(alice));
+    }
+
+    @Test
+    void repeatedLookupsHitTheCacheWhateverTheCase() {
+        assertThat(patientService.getPatientByEmailOrPhone("alice.wilson@email.com", null)).contains(alice);
+        assertThat(patientService.getPatientByEmailOrPhone(" Alice.Wilson@Email.com ", null)).contains(alice);
+        assertThat(patientService.existsByEmail("ALICE.WILSON@email.com")).isTrue();
+
+        verify(patientRepository, times(1)).findIdByEmail(anyString());
+        verify(patientRepository, never()).countByEmail(anyString());
+        assertThat(patientService.getLookupCacheStats().get("email"))
+            .isEqualTo(Map.of("hits", 2L, "misses", 1L, "size", 1));
+    }
+
+    @Test
+    void missesAreCachedUntilThePatientIsSaved() {
+        assertThat(patientService.getPatientIdsByEmailOrPhone("new@email.com", null)).isEmpty();
+        assertThat(patientService.existsByEmail("new@email.com")).isFalse();
+        verify(patientRepository, times(1)).findIdByEmail("new@email.com");
+
+        Patient created = new Patient("New Patient", "new@email.com", "+1-555-0299", null);
+        when(patientRepository.save(any(Patient.class))).thenAnswer(invocation -> {
+            ReflectionTestUtils.setField(created, "id", 8L);
+            return created;
+        });
+        when(patientRepository.findIdByEmail("new@email.com")).thenReturn(Optional.of(8L));
+        patientService.savePatient(created);
+
+        assertThat(patientService.getPatientIdsByEmailOrPhone("new@email.com", null)).containsExactly(8L);
+    }
+
+    @Test
+    void existenceCheckUsesCountQueryOnMiss() {
+        when(patientRepository.countByPhone("+1-555-0201")).thenReturn(1L);
+
+        assertThat(patientService.existsByPhone(" +1-555-0201 ")).isTrue();
+        verify(patientRepository).countByPhone("+1-555-0201");
+        verify(patientRepository, never()).findByPhone(anyString());
+    }
+}
@@ -0,0 +1,114 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import com.ibm.certification.clinical_system.entity.Prescription;
+import com.ibm.certification.clinical_system.repository.PrescriptionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+    "clinic.prescriptions.write-behind.enabled=true",
+    "clinic.prescriptions.write-behind.batch-size=20",
+    "clinic.prescriptions.write-behind.max-delay-ms=200"
+})
+@ActiveProfiles("h2")
+class PrescriptionWriteQueueTest {
+
+    private static final int PRESCRIPTIONS = 50;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void queuedPrescriptionsAreGroupCommittedWithTheirIds() throws Exception {
+        String suffix = Long.toString(System.nanoTime());
+        Doctor doctor = doctorService.saveDoctor(new Doctor("Dr. Sarah Johnson", "sarah" + suffix + "@clinic.com",
+            "Cardiology", "+1-555-0101", null));
+        Patient patient = patientService.savePatient(new Patient("Alice Smith", "alice" + suffix + "@email.com",
+            "+1-555-0201", null));
+        String token = tokenService.generateJWTToken(doctor.getEmail(), "DOCTOR");
+
+        List<QueuedPrescription> queued = new ArrayList<>();
+        for (int i = 0; i < PRESCRIPTIONS; i++) {
+            queued.add(prescriptionService.submitPrescription(
+                token, doctor.getId(), patient.getId(), "Lisinopril " + i, "10mg", "Once daily"));
+        }
+
+        HashSet<Long> ids = new HashSet<>();
+        for (QueuedPrescription prescription : queued) {
+            ids.add(prescription.committed().get(10, TimeUnit.SECONDS));
+        }
+        assertThat(ids).hasSize(PRESCRIPTIONS);
+
+        QueuedPrescription last = queued.get(PRESCRIPTIONS - 1);
+        assertThat(prescriptionService.getQueuedPrescription(last.ticket())).contains(last);
+        Prescription stored = prescriptionRepository.findById(last.committed().get()).orElseThrow();
+        assertThat(stored.getMedication()).isEqualTo("Lisinopril " + (PRESCRIPTIONS - 1));
+        assertThat(stored.getCreatedAt()).isNotNull();
+
+        DistributionSummary batches = meterRegistry.get("clinic.prescriptions.batch.size").summary();
+        assertThat(batches.totalAmount()).isEqualTo(PRESCRIPTIONS);
+        assertThat(batches.count()).isLessThan(PRESCRIPTIONS);
+    }
+
+    @Test
+    void fullQueueRejectsInsteadOfBlocking() {
+        PrescriptionWriteQueue writeQueue = new PrescriptionWriteQueue();
+        ReflectionTestUtils.setField(writeQueue, "queue", new ArrayBlockingQueue<>(1));
+        ReflectionTestUtils.setField(writeQueue, "running", true);
+
+        writeQueue.submit(new Prescription());
+
+        assertThatThrownBy(() -> writeQueue.submit(new Prescription()))
+            .isInstanceOf(WriteQueueFullException.class);
+    }
+
+    @Test
+    void submitRacingWithStopIsWithdrawnRatherThanLost() {
+        PrescriptionWriteQueue writeQueue = new PrescriptionWriteQueue();
+        ArrayBlockingQueue<Object> queue = new ArrayBlockingQueue<>(1) {
+            @Override
+            public boolean offer(Object pending) {
+                boolean accepted = super.offer(pending);
+                ReflectionTestUtils.setField(writeQueue, "running", false);
+                return accepted;
+            }
+        };
+        ReflectionTestUtils.setField(writeQueue, "queue", queue);
+        ReflectionTestUtils.setField(writeQueue, "running", true);
+
+        assertThatThrownBy(() -> writeQueue.submit(new Prescription()))
+            .hasMessage("Asynchronous prescription writes are disabled");
+        assertThat(queue).isEmpty();
+    }
+}
@@ -0,0 +1,82 @@
+package com.ibm.certification.clinical_system.service;
+
+import com.ibm.certification.clinical_system.entity.Doctor;
+import com.ibm.certification.clinical_system.entity.Patient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+class SecondLevelCacheTest {
+
+    private static final int BOOKINGS = 5;
+
+    private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2031, 3, 3, 9, 0);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Doctor doctor;
+
+    private Patient patient;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = Long.toString(System.nanoTime());
+        doctor = doctorService.saveDoctor(new Doctor("Dr. Emily Rodriguez", "emily" + suffix + "@clinic.com",
+            "Pediatrics", "+1-555-0103", null));
+        patient = patientService.savePatient(new Patient("Bob Brown", "bob" + suffix + "@email.com",
+            "+1-555-0202", null));
+    }
+
+    @Test
+    void repeatedBookingsOnlyHitTheDatabaseForTheSlotGuardAndTheInsert() {
+        // Loads both entities into the cache and lets the pooled id optimizer read its first two sequence values
+        appointmentService.bookAppointment(doctor.getId(), patient.getId(), FIRST_SLOT, "First visit");
+        appointmentService.bookAppointment(doctor.getId(), patient.getId(), FIRST_SLOT.minusDays(1), "First visit");
+        statistics.clear();
+
+        for (int i = 1; i <= BOOKINGS; i++) {
+            appointmentService.bookAppointment(doctor.getId(), patient.getId(), FIRST_SLOT.plusDays(i), "Follow-up");
+        }
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(BOOKINGS);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2 * BOOKINGS);
+        // Each booking locks the doctor row, re-checks the slot and inserts
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3 * BOOKINGS);
+    }
+
+    @Test
+    void doctorEmailLookupIsServedFromTheQueryCache() {
+        assertThat(doctorService.validateDoctorCredentials(doctor.getEmail())).isTrue();
+        statistics.clear();
+
+        assertThat(doctorService.validateDoctorCredentials(doctor.getEmail())).isTrue();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
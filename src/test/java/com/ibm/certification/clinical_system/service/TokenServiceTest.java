@@ -0,0 +1,48 @@
+package com.ibm.certification.clinical_system.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "smartClinicSecretKeyForJWTTokenGenerationThatShouldBeLongEnough";
+
+    @Test
+    void cachedTokenIsRejectedOnceExpired() throws InterruptedException {
+        TokenService tokenService = newTokenService(1_500L);
+        String token = tokenService.generateJWTToken("john.smith@clinic.com", "DOCTOR");
+
+        assertThat(tokenService.validateToken(token)).isTrue();
+        assertThat(tokenService.getEmailFromToken(token)).isEqualTo("john.smith@clinic.com");
+
+        Thread.sleep(2_100L);
+
+        assertThat(tokenService.validateToken(token)).isFalse();
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        TokenService tokenService = newTokenService(60_000L);
+        TokenService otherService = newTokenService(60_000L);
+        ReflectionTestUtils.setField(otherService, "jwtSecret", SECRET.replace('s', 'x'));
+        otherService.init();
+
+        String token = otherService.generateJWTToken("john.smith@clinic.com", "DOCTOR");
+
+        assertThat(otherService.validateToken(token)).isTrue();
+        assertThat(tokenService.validateToken(token)).isFalse();
+        assertThat(tokenService.validateToken(token + "x")).isFalse();
+    }
+
+    private static TokenService newTokenService(long expiration) {
+        TokenService tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tokenService, "jwtExpiration", expiration);
+        tokenService.init();
+        return tokenService;
+    }
+}